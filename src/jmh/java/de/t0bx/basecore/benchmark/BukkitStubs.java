@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.benchmark;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Proxy stand-ins for Bukkit interfaces, so code that only talks to interfaces can be measured without a server.
+ * Every call returns the zero value of its type; interface results are stubs themselves and the same instance is
+ * returned for the same method and arguments.
+ */
+public final class BukkitStubs {
+
+    private BukkitStubs() {
+    }
+
+    public static <T> T stub(Class<T> type) {
+        Map<String, Object> children = new ConcurrentHashMap<>();
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (instance, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    if (args == null) return System.identityHashCode(instance);
+                    break;
+                case "equals":
+                    if (args != null && args.length == 1) return instance == args[0];
+                    break;
+                case "toString":
+                    if (args == null) return type.getSimpleName() + " stub";
+                    break;
+                default:
+                    break;
+            }
+
+            Class<?> returnType = method.getReturnType();
+            if (returnType == void.class) {
+                return null;
+            }
+            if (returnType.isPrimitive()) {
+                return Array.get(Array.newInstance(returnType, 1), 0);
+            }
+            if (returnType.isInterface()) {
+                return children.computeIfAbsent(method.getName() + Arrays.toString(args), key -> stub(returnType));
+            }
+            return null;
+        });
+        return type.cast(proxy);
+    }
+}
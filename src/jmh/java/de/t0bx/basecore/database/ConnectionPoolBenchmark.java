@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.database;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * The coin statements through the connection pool and statement cache, against an in-memory H2 database in MySQL
+ * mode. Absolute numbers say little about a networked MySQL server; the results are meant to show regressions in
+ * the pool, the statement cache and the metrics around each call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+public class ConnectionPoolBenchmark {
+
+    private static final String SELECT_SQL = "SELECT coins FROM player_coins WHERE uuid = ?";
+    private static final String UPSERT_SQL = "INSERT INTO player_coins(uuid, coins) VALUES(?, ?) ON DUPLICATE KEY UPDATE coins = coins + VALUES(coins)";
+
+    @Param({"10000"})
+    public int players;
+
+    @Param({"100"})
+    public int batchSize;
+
+    private ConnectionPool connectionPool;
+    private byte[][] uuids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        PoolSettings poolSettings = new PoolSettings(4, 4, 600000L, 5000L, 2000L, 0L, 64, 0L, 0L);
+        this.connectionPool = new ConnectionPool("jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "",
+                poolSettings, new QueryMetrics(0L, Logger.getLogger("benchmark")), Logger.getLogger("benchmark"));
+        this.connectionPool.start();
+
+        this.uuids = new byte[this.players][];
+        List<Object[]> rows = new ArrayList<>(this.players);
+        for (int i = 0; i < this.players; i++) {
+            this.uuids[i] = BinaryUUID.toBytes(UUID.randomUUID());
+            rows.add(new Object[]{this.uuids[i], 1000L});
+        }
+        try (PooledConnection pooledConnection = this.connectionPool.borrow()) {
+            pooledConnection.executeUpdate("CREATE TABLE IF NOT EXISTS player_coins(uuid BINARY(16) NOT NULL PRIMARY KEY, coins BIGINT NOT NULL DEFAULT 0)");
+            pooledConnection.executeUpdate("DELETE FROM player_coins");
+            pooledConnection.executeBatch("INSERT INTO player_coins(uuid, coins) VALUES(?, ?)", rows);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.connectionPool.close();
+    }
+
+    @Benchmark
+    public List<Long> select() throws SQLException {
+        try (PooledConnection pooledConnection = this.connectionPool.borrow()) {
+            return pooledConnection.executeQuery(SELECT_SQL, resultSet -> {
+                try {
+                    return resultSet.getLong("coins");
+                } catch (SQLException exception) {
+                    throw new RuntimeException(exception);
+                }
+            }, this.randomPlayer());
+        }
+    }
+
+    @Benchmark
+    public int upsertDelta() throws SQLException {
+        try (PooledConnection pooledConnection = this.connectionPool.borrow()) {
+            return pooledConnection.executeUpdate(UPSERT_SQL, this.randomPlayer(), 1);
+        }
+    }
+
+    @Benchmark
+    public int[] batchUpsertDelta() throws SQLException {
+        List<Object[]> rows = new ArrayList<>(this.batchSize);
+        for (int i = 0; i < this.batchSize; i++) {
+            rows.add(new Object[]{this.randomPlayer(), 1});
+        }
+        try (PooledConnection pooledConnection = this.connectionPool.borrow()) {
+            return pooledConnection.executeBatch(UPSERT_SQL, rows);
+        }
+    }
+
+    private byte[] randomPlayer() {
+        return this.uuids[ThreadLocalRandom.current().nextInt(this.uuids.length)];
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.item;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The text work {@link ItemProvider} does per built item: one MiniMessage name and a few lore lines.
+ * {@code ItemStack} and {@code ItemMeta} are backed by the server's item factory and cannot be created without a
+ * running server, so the item itself is not part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ItemTextBenchmark {
+
+    private static final String NAME = "<gradient:#ffaa00:#ff5500><bold>Legendary Sword</bold></gradient>";
+    private static final String[] LORE = {
+            "<gray>Damage: <red>+12",
+            "<gray>Attack speed: <yellow>1.6",
+            "",
+            "<dark_gray>Click to equip"
+    };
+
+    @Benchmark
+    public Component name() {
+        return MiniMessage.miniMessage().deserialize(NAME);
+    }
+
+    @Benchmark
+    public void nameAndLore(Blackhole blackhole) {
+        blackhole.consume(MiniMessage.miniMessage().deserialize(NAME));
+        for (String line : LORE) {
+            blackhole.consume(MiniMessage.miniMessage().deserialize(line));
+        }
+    }
+}
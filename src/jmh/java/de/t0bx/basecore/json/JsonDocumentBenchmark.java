@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading and saving a {@link JsonDocument} of the size of {@code database.json}. {@code loadAndRead} is what every
+ * {@code DatabaseFile} getter costs, because each one reloads the file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonDocumentBenchmark {
+
+    @Param({"40"})
+    public int keys;
+
+    private File file;
+    private File saveFile;
+    private JsonDocument document;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.file = Files.createTempFile("basecore-benchmark", ".json").toFile();
+        this.saveFile = Files.createTempFile("basecore-benchmark-save", ".json").toFile();
+
+        this.document = new JsonDocument();
+        for (int i = 0; i < this.keys; i++) {
+            switch (i % 3) {
+                case 0 -> this.document.append("intKey" + i, i * 1000);
+                case 1 -> this.document.append("stringKey" + i, "value-" + i);
+                default -> this.document.append("booleanKey" + i, i % 2 == 0);
+            }
+        }
+        this.document.save(this.file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.file.delete();
+        this.saveFile.delete();
+    }
+
+    @Benchmark
+    public JsonDocument load() {
+        return JsonDocument.loadDocument(this.file);
+    }
+
+    @Benchmark
+    public int loadAndRead() {
+        return JsonDocument.loadDocument(this.file).getInt("intKey0");
+    }
+
+    @Benchmark
+    public void save() {
+        this.document.save(this.saveFile);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return this.document.toString();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.coins;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coin cache reads and writes for both storages. The grouped benchmark runs three readers against one writer on
+ * the same players, like the main thread reading balances while async tasks change them. {@link #footprint}
+ * reports the retained heap per cached player as the {@code bytesPerEntry} counter.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CoinsCacheBenchmark {
+
+    @Param({"PRIMITIVE", "BOXED"})
+    public CoinsCache.Storage storage;
+
+    @Param({"10000", "100000"})
+    public int players;
+
+    private CoinsCache coinsCache;
+    private UUID[] uuids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.coinsCache = new CoinsCache(this.storage, this.players * 2, TimeUnit.HOURS.toMillis(1));
+        this.uuids = new UUID[this.players];
+        for (int i = 0; i < this.players; i++) {
+            this.uuids[i] = UUID.randomUUID();
+            this.coinsCache.putIfAbsent(this.uuids[i], 1000);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void drainPending() {
+        // keeps the dirty set from growing over the whole trial
+        for (UUID uuid : this.coinsCache.getDirtyPlayers()) {
+            this.coinsCache.completeDrain(uuid, this.coinsCache.drain(uuid), true);
+        }
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public long read() {
+        return this.coinsCache.get(this.randomPlayer());
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public CoinsChange write() {
+        return this.coinsCache.computeIfPresent(this.randomPlayer(), false, 1);
+    }
+
+    @Benchmark
+    @Group("uncontendedRead")
+    public long uncontendedRead() {
+        return this.coinsCache.get(this.randomPlayer());
+    }
+
+    @Benchmark
+    @Group("uncontendedWrite")
+    public CoinsChange uncontendedWrite() {
+        return this.coinsCache.computeIfPresent(this.randomPlayer(), false, 1);
+    }
+
+    /**
+     * Fills a new cache and measures the heap it retains, including the UUID keys the boxed storage keeps alive.
+     * Runs once per fork, so only the counter is meaningful, not the time.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public CoinsCache footprint(Footprint footprint) {
+        long before = retainedHeap();
+        CoinsCache coinsCache = new CoinsCache(this.storage, this.players, TimeUnit.HOURS.toMillis(1));
+        for (int i = 0; i < this.players; i++) {
+            coinsCache.putIfAbsent(UUID.randomUUID(), 1000);
+        }
+        footprint.bytesPerEntry = (double) (retainedHeap() - before) / this.players;
+        return coinsCache;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public double bytesPerEntry;
+    }
+
+    private static long retainedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private UUID randomPlayer() {
+        return this.uuids[ThreadLocalRandom.current().nextInt(this.uuids.length)];
+    }
+}
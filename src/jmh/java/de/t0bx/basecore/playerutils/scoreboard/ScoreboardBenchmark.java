@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.scoreboard;
+
+import de.t0bx.basecore.benchmark.BukkitStubs;
+import org.bukkit.entity.Player;
+import org.bukkit.scoreboard.Scoreboard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoreboard line updates against a stubbed {@link Scoreboard}, so the numbers cover the entry lookup and the
+ * MiniMessage parsing of the line but not the server's packet handling.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ScoreboardBenchmark {
+
+    private static final String[] LINES = {
+            "<gray>Coins: <gold>12.345",
+            "<gradient:#ff0000:#00ff00>Lobby-1</gradient>",
+            "<white>Online: <green>128",
+            "<dark_gray>play.example.net"
+    };
+
+    private ScoreboardBuilder scoreboardBuilder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.scoreboardBuilder = new ScoreboardBuilder(BukkitStubs.stub(Player.class), BukkitStubs.stub(Scoreboard.class));
+        this.scoreboardBuilder.createSidebar("<gold>Benchmark");
+    }
+
+    @Benchmark
+    public EntryName entryNameByScore() {
+        return EntryName.getEntryNameByScore(ThreadLocalRandom.current().nextInt(22));
+    }
+
+    @Benchmark
+    public void setLine() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        this.scoreboardBuilder.setLine(LINES[random.nextInt(LINES.length)], random.nextInt(16));
+    }
+}
@@ -10,17 +10,32 @@
 
 package de.t0bx.basecore;
 
+import de.t0bx.basecore.database.DatabaseExecutor;
 import de.t0bx.basecore.database.DatabaseFile;
 import de.t0bx.basecore.listener.PlayerJoinListener;
+import de.t0bx.basecore.listener.PlayerLoginListener;
+import de.t0bx.basecore.listener.PlayerQuitListener;
+import de.t0bx.basecore.playerutils.coins.CoinsLeaderboard;
 import de.t0bx.basecore.playerutils.coins.CoinsProvider;
+import de.t0bx.basecore.playerutils.coins.CoinsSchema;
 import de.t0bx.basecore.playerutils.coins.ICoinsProvider;
+import de.t0bx.basecore.playerutils.coins.sync.CoinsSynchronizer;
+import de.t0bx.basecore.playerutils.coins.sync.ICoinsSyncTransport;
+import de.t0bx.basecore.playerutils.uuid.MySQLProfileStore;
+import de.t0bx.basecore.playerutils.uuid.ProfileCache;
+import de.t0bx.basecore.playerutils.uuid.ProfileResolver;
+import de.t0bx.basecore.playerutils.uuid.ProfileSchema;
 import de.t0bx.basecore.database.IMySQLManager;
 import de.t0bx.basecore.database.MySQLManager;
+import de.t0bx.basecore.database.SchemaMigrator;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 
 @Getter
 public final class BaseAPI extends JavaPlugin {
@@ -30,9 +45,16 @@ public final class BaseAPI extends JavaPlugin {
 
     private DatabaseFile databaseFile;
 
+    private DatabaseExecutor databaseExecutor;
+
     private IMySQLManager mySQLManager;
 
-    private ICoinsProvider coinsProvider;
+    @Getter(AccessLevel.NONE)
+    private CoinsProvider coinsProvider;
+
+    private CoinsLeaderboard coinsLeaderboard;
+
+    private CoinsSynchronizer coinsSynchronizer;
 
     @Override
     public void onEnable() {
@@ -42,30 +64,60 @@ public final class BaseAPI extends JavaPlugin {
         this.databaseFile = new DatabaseFile();
         this.databaseFile.createDefault();
 
+        this.databaseExecutor = this.databaseFile.createExecutor();
+
         this.getLogger().info("Trying to connect to database...");
         this.mySQLManager = new MySQLManager(this.databaseFile.getDatabaseHost(),
                 this.databaseFile.getDatabasePort(),
                 this.databaseFile.getDatabaseUsername(),
                 this.databaseFile.getDatabasePassword(),
-                this.getDatabaseFile().getDatabaseName()
+                this.getDatabaseFile().getDatabaseName(),
+                this.databaseFile.getPoolSettings(),
+                this.databaseExecutor,
+                this.databaseFile.createRetryPolicy(),
+                this.databaseFile.createCircuitBreaker(),
+                this.databaseFile.createQueryMetrics()
         );
 
         try {
             this.mySQLManager.connect();
-            this.createDefaultSQLTable();
+            this.migrateSchema();
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
 
         this.coinsProvider = new CoinsProvider();
 
+        this.coinsLeaderboard = new CoinsLeaderboard(this.mySQLManager, this.databaseFile.getCoinsLeaderboardSize());
+        this.coinsProvider.addBalanceListener((uuid, oldCoins, newCoins) -> this.coinsLeaderboard.update(uuid, newCoins));
+        this.coinsLeaderboard.seed();
+
+        this.setUpProfileResolver();
+
+        Bukkit.getPluginManager().registerEvents(new PlayerLoginListener(), this);
         Bukkit.getPluginManager().registerEvents(new PlayerJoinListener(), this);
+        Bukkit.getPluginManager().registerEvents(new PlayerQuitListener(), this);
 
         this.getLogger().info("BaseCore started. Version >> " + this.getDescription().getVersion());
     }
 
     @Override
     public void onDisable() {
+        // stop lookups first, their cache saves still go to the database executor
+        ProfileResolver.shutdownDefault();
+
+        if (this.coinsSynchronizer != null) {
+            this.coinsSynchronizer.shutdown();
+        }
+
+        if (this.coinsProvider != null) {
+            this.coinsProvider.shutdown();
+        }
+
+        if (this.databaseExecutor != null) {
+            this.databaseExecutor.shutdown(10, TimeUnit.SECONDS);
+        }
+
         try {
             this.mySQLManager.disconnect();
         } catch (SQLException exception) {
@@ -73,8 +125,51 @@ public final class BaseAPI extends JavaPlugin {
         }
     }
 
-    private void createDefaultSQLTable() {
-        String coinsTable = "CREATE TABLE IF NOT EXISTS player_coins(uuid VARCHAR(36) PRIMARY KEY, coins INT(100) NOT NULL)";
-        this.mySQLManager.updateAsync(coinsTable);
+    public ICoinsProvider getCoinsProvider() {
+        return this.coinsProvider;
+    }
+
+    /**
+     * Keeps the coin caches of all servers that share the database coherent over the given transport.
+     */
+    public synchronized CoinsSynchronizer startCoinsSync(ICoinsSyncTransport transport) {
+        if (this.coinsSynchronizer != null) {
+            throw new IllegalStateException("Coin sync has already been started");
+        }
+        this.coinsSynchronizer = new CoinsSynchronizer(this.coinsProvider, transport, this.databaseFile.getCoinsSyncDebounceTicks());
+        return this.coinsSynchronizer;
+    }
+
+    private void migrateSchema() throws SQLException {
+        SchemaMigrator schemaMigrator = new SchemaMigrator(this.mySQLManager, "basecore", this.getLogger());
+        CoinsSchema.registerMigrations(schemaMigrator);
+        int version = schemaMigrator.migrate();
+        this.getLogger().info("Database schema is at version " + version);
+
+        SchemaMigrator profileMigrator = new SchemaMigrator(this.mySQLManager, ProfileSchema.SCOPE, this.getLogger());
+        ProfileSchema.registerMigrations(profileMigrator);
+        profileMigrator.migrate();
+    }
+
+    private void setUpProfileResolver() {
+        ProfileCache profileCache = new ProfileCache(
+                this.databaseFile.getProfileCacheMaximumSize(),
+                TimeUnit.MINUTES.toMillis(this.databaseFile.getProfileCacheTtlMinutes()),
+                TimeUnit.MINUTES.toMillis(this.databaseFile.getProfileCacheNegativeTtlMinutes()),
+                TimeUnit.MINUTES.toMillis(this.databaseFile.getProfileCacheTexturesTtlMinutes())
+        );
+        if (this.databaseFile.isProfileCachePersistent()) {
+            profileCache.setStore(new MySQLProfileStore(this.mySQLManager));
+            profileCache.warmUp(this.databaseFile.getProfileCacheMaximumSize()).whenComplete((loaded, throwable) -> {
+                if (throwable != null) {
+                    this.getLogger().log(Level.WARNING, "Could not warm up the profile cache", throwable);
+                } else {
+                    this.getLogger().info("Loaded " + loaded + " cached profiles");
+                }
+            });
+        }
+
+        ProfileResolver.setDefault(new ProfileResolver(ProfileResolver.MOJANG_API_URL, ProfileResolver.SESSION_SERVER_URL,
+                ProfileResolver.MCPROFILE_API_URL, ProfileResolver.DEFAULT_MAX_CONCURRENT_REQUESTS, profileCache));
     }
 }
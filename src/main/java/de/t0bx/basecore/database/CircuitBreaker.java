@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.database;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Stops calls to the database after {@code failureThreshold} connection failures in a row. While open, calls fail
+ * with a {@link CircuitOpenException} at once instead of queueing up behind borrow and socket timeouts. After
+ * {@code openMillis} a single probe call is let through; its outcome closes the breaker or opens it again.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    @Getter
+    private final int failureThreshold;
+
+    @Getter
+    private final long openMillis;
+
+    private final Logger logger;
+
+    private final LongAdder rejectedCalls;
+    private final LongAdder timesOpened;
+
+    @Getter
+    private volatile State state;
+
+    @Getter
+    private volatile int consecutiveFailures;
+
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(int failureThreshold, long openMillis, Logger logger) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = Math.max(0L, openMillis);
+        this.logger = logger;
+        this.rejectedCalls = new LongAdder();
+        this.timesOpened = new LongAdder();
+        this.state = State.CLOSED;
+    }
+
+    /**
+     * @return whether a call would currently be let through, without claiming the half-open probe
+     */
+    public boolean isCallPermitted() {
+        State state = this.state;
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            return this.state == State.CLOSED
+                    || (this.state == State.OPEN && System.currentTimeMillis() - this.openedAt >= this.openMillis)
+                    || (this.state == State.HALF_OPEN && !this.probeInFlight);
+        }
+    }
+
+    void acquirePermission() throws CircuitOpenException {
+        if (this.state == State.CLOSED) return;
+
+        synchronized (this) {
+            if (this.state == State.OPEN && System.currentTimeMillis() - this.openedAt >= this.openMillis) {
+                this.state = State.HALF_OPEN;
+                this.probeInFlight = false;
+            }
+            if (this.state == State.CLOSED) return;
+            if (this.state == State.HALF_OPEN && !this.probeInFlight) {
+                this.probeInFlight = true;
+                return;
+            }
+        }
+        throw this.reject();
+    }
+
+    CircuitOpenException reject() {
+        this.rejectedCalls.increment();
+        return new CircuitOpenException("MySQL circuit breaker is open, the database is considered unavailable");
+    }
+
+    /**
+     * Records a call that reached the database, including calls that failed for reasons other than the connection.
+     */
+    void recordSuccess() {
+        if (this.state == State.CLOSED && this.consecutiveFailures == 0) return;
+
+        synchronized (this) {
+            this.consecutiveFailures = 0;
+            if (this.state != State.CLOSED) {
+                this.state = State.CLOSED;
+                this.probeInFlight = false;
+                this.logger.info("MySQL is reachable again, circuit breaker closed");
+            }
+        }
+    }
+
+    synchronized void recordFailure() {
+        this.consecutiveFailures++;
+        if (this.state == State.HALF_OPEN || (this.state == State.CLOSED && this.consecutiveFailures >= this.failureThreshold)) {
+            this.state = State.OPEN;
+            this.openedAt = System.currentTimeMillis();
+            this.probeInFlight = false;
+            this.timesOpened.increment();
+            this.logger.warning("MySQL failed " + this.consecutiveFailures + " time(s) in a row, circuit breaker opened for " + this.openMillis + "ms");
+        }
+    }
+
+    public long getRejectedCalls() {
+        return this.rejectedCalls.sum();
+    }
+
+    public long getTimesOpened() {
+        return this.timesOpened.sum();
+    }
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.database;
+
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface ConnectionFunction<T> {
+
+    T apply(TxContext context) throws SQLException;
+}
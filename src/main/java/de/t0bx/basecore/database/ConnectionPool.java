@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+package de.t0bx.basecore.database;
+
+import lombok.Getter;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ConnectionPool {
+
+    private static final long HOUSEKEEPING_INTERVAL_MILLIS = 5000L;
+    private static final long VALIDATION_BYPASS_MILLIS = 500L;
+
+    private final String url;
+    private final String username;
+    private final String password;
+
+    @Getter
+    private final PoolSettings settings;
+
+    private final Logger logger;
+
+    @Getter
+    private final QueryMetrics queryMetrics;
+
+    private final LinkedBlockingDeque<PooledConnection> idleConnections;
+    private final Set<PooledConnection> borrowedConnections;
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections;
+
+    private final LongAdder statementCacheHits;
+    private final LongAdder statementCacheMisses;
+
+    private ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, String username, String password, PoolSettings settings, QueryMetrics queryMetrics, Logger logger) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.settings = settings;
+        this.queryMetrics = queryMetrics;
+        this.logger = logger;
+
+        this.idleConnections = new LinkedBlockingDeque<>();
+        this.borrowedConnections = ConcurrentHashMap.newKeySet();
+        this.permits = new Semaphore(settings.getMaximumSize(), true);
+        this.totalConnections = new AtomicInteger();
+        this.statementCacheHits = new LongAdder();
+        this.statementCacheMisses = new LongAdder();
+    }
+
+    public void start() throws SQLException {
+        this.closed = false;
+        for (int i = 0; i < this.settings.getMinimumSize(); i++) {
+            if (!this.reserveSlot()) break;
+            this.idleConnections.offerLast(this.createConnection());
+        }
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "basecore-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep, HOUSEKEEPING_INTERVAL_MILLIS, HOUSEKEEPING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public PooledConnection borrow() throws SQLException {
+        if (this.closed) {
+            throw new SQLException("MySQL-Connection-Pool has been closed!");
+        }
+
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(this.settings.getBorrowTimeoutMillis());
+        long deadline = System.nanoTime() + timeoutNanos;
+
+        try {
+            if (!this.permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw this.borrowTimeout();
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a MySQL-Connection", exception);
+        }
+
+        try {
+            while (true) {
+                PooledConnection pooledConnection = this.idleConnections.pollFirst();
+
+                if (pooledConnection == null) {
+                    if (this.reserveSlot()) {
+                        pooledConnection = this.createConnection();
+                    } else {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            throw this.borrowTimeout();
+                        }
+                        pooledConnection = this.idleConnections.pollFirst(remaining, TimeUnit.NANOSECONDS);
+                        if (pooledConnection == null) {
+                            throw this.borrowTimeout();
+                        }
+                    }
+                }
+
+                if (pooledConnection.getIdleMillis() > VALIDATION_BYPASS_MILLIS && !this.isValid(pooledConnection)) {
+                    this.discard(pooledConnection);
+                    continue;
+                }
+
+                pooledConnection.markBorrowed(this.settings.getLeakDetectionThresholdMillis() > 0);
+                this.borrowedConnections.add(pooledConnection);
+                return pooledConnection;
+            }
+        } catch (InterruptedException exception) {
+            this.permits.release();
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a MySQL-Connection", exception);
+        } catch (SQLException | RuntimeException exception) {
+            this.permits.release();
+            throw exception;
+        }
+    }
+
+    void release(PooledConnection pooledConnection) {
+        if (!this.borrowedConnections.remove(pooledConnection)) return;
+
+        pooledConnection.markReturned();
+        if (this.closed || pooledConnection.isBroken() || !this.resetState(pooledConnection)) {
+            this.discard(pooledConnection);
+        } else {
+            this.idleConnections.offerFirst(pooledConnection);
+        }
+        this.permits.release();
+    }
+
+    public void close() {
+        this.closed = true;
+        if (this.housekeeper != null) {
+            this.housekeeper.shutdownNow();
+        }
+
+        PooledConnection pooledConnection;
+        while ((pooledConnection = this.idleConnections.pollFirst()) != null) {
+            this.discard(pooledConnection);
+        }
+
+        if (!this.borrowedConnections.isEmpty()) {
+            this.logger.warning(this.borrowedConnections.size() + " MySQL-Connection(s) were still in use while closing the pool");
+        }
+    }
+
+    public int getTotalConnections() {
+        return this.totalConnections.get();
+    }
+
+    public int getIdleConnections() {
+        return this.idleConnections.size();
+    }
+
+    public int getActiveConnections() {
+        return this.borrowedConnections.size();
+    }
+
+    public int getPendingBorrows() {
+        return this.permits.getQueueLength();
+    }
+
+    public long getStatementCacheHits() {
+        return this.statementCacheHits.sum();
+    }
+
+    public long getStatementCacheMisses() {
+        return this.statementCacheMisses.sum();
+    }
+
+    private void housekeep() {
+        try {
+            Iterator<PooledConnection> iterator = this.idleConnections.descendingIterator();
+            while (iterator.hasNext() && this.totalConnections.get() > this.settings.getMinimumSize()) {
+                PooledConnection pooledConnection = iterator.next();
+                if (pooledConnection.getIdleMillis() > this.settings.getIdleTimeoutMillis()
+                        && this.idleConnections.remove(pooledConnection)) {
+                    this.discard(pooledConnection);
+                }
+            }
+
+            while (!this.closed && this.totalConnections.get() < this.settings.getMinimumSize() && this.reserveSlot()) {
+                try {
+                    this.idleConnections.offerLast(this.createConnection());
+                } catch (SQLException exception) {
+                    this.logger.warning("Could not refill MySQL-Connection-Pool: " + exception.getMessage());
+                    break;
+                }
+            }
+
+            long leakThreshold = this.settings.getLeakDetectionThresholdMillis();
+            if (leakThreshold > 0) {
+                for (PooledConnection pooledConnection : this.borrowedConnections) {
+                    if (!pooledConnection.isLeakReported() && pooledConnection.getBorrowedMillis() > leakThreshold) {
+                        pooledConnection.setLeakReported();
+                        this.logger.log(Level.WARNING, "Possible MySQL-Connection leak: connection has been borrowed for "
+                                + pooledConnection.getBorrowedMillis() + "ms", pooledConnection.getBorrowTrace());
+                    }
+                }
+            }
+        } catch (RuntimeException exception) {
+            this.logger.log(Level.SEVERE, "Error during MySQL-Connection-Pool housekeeping", exception);
+        }
+    }
+
+    private boolean reserveSlot() {
+        while (true) {
+            int current = this.totalConnections.get();
+            if (current >= this.settings.getMaximumSize()) {
+                return false;
+            }
+            if (this.totalConnections.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private PooledConnection createConnection() throws SQLException {
+        try {
+            Connection connection = DriverManager.getConnection(this.url, this.username, this.password);
+            StatementCache statementCache = new StatementCache(this.settings.getStatementCacheSize(), this.statementCacheHits, this.statementCacheMisses);
+            return new PooledConnection(this, connection, statementCache, this.queryMetrics);
+        } catch (SQLException | RuntimeException exception) {
+            this.totalConnections.decrementAndGet();
+            throw exception;
+        }
+    }
+
+    private boolean isValid(PooledConnection pooledConnection) {
+        try {
+            int timeoutSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(this.settings.getValidationTimeoutMillis()));
+            return pooledConnection.getConnection().isValid(timeoutSeconds);
+        } catch (SQLException exception) {
+            return false;
+        }
+    }
+
+    private boolean resetState(PooledConnection pooledConnection) {
+        try {
+            Connection connection = pooledConnection.getConnection();
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException exception) {
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection pooledConnection) {
+        this.totalConnections.decrementAndGet();
+        pooledConnection.closePhysically();
+    }
+
+    private SQLTimeoutException borrowTimeout() {
+        return new SQLTimeoutException("Timed out after " + this.settings.getBorrowTimeoutMillis()
+                + "ms while waiting for a MySQL-Connection (active: " + this.getActiveConnections()
+                + ", max: " + this.settings.getMaximumSize() + ")");
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+package de.t0bx.basecore.database;
+
+import lombok.Getter;
+import org.bukkit.Bukkit;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Runs blocking JDBC work off the common ForkJoinPool. The number of submitted but unfinished tasks is
+ * bounded by the queue capacity; once it is reached new submissions are either rejected or block the caller.
+ * The main thread is never blocked, its submissions are rejected under either policy.
+ */
+public class DatabaseExecutor implements Executor {
+
+    public enum Mode {
+        VIRTUAL,
+        PLATFORM
+    }
+
+    public enum RejectionPolicy {
+        REJECT,
+        CALLER_BLOCKS
+    }
+
+    @Getter
+    private final Mode mode;
+
+    @Getter
+    private final RejectionPolicy rejectionPolicy;
+
+    @Getter
+    private final int queueCapacity;
+
+    private final ExecutorService delegate;
+    private final Semaphore slots;
+    private final AtomicInteger outstandingTasks;
+    private final Logger logger;
+
+    public DatabaseExecutor(Mode mode, int platformThreads, int queueCapacity, RejectionPolicy rejectionPolicy, Logger logger) {
+        this.mode = mode;
+        this.rejectionPolicy = rejectionPolicy;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.slots = new Semaphore(this.queueCapacity);
+        this.outstandingTasks = new AtomicInteger();
+        this.logger = logger;
+
+        if (mode == Mode.VIRTUAL) {
+            this.delegate = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("basecore-db-", 0).factory());
+        } else {
+            int threads = Math.max(1, platformThreads);
+            AtomicInteger threadCounter = new AtomicInteger();
+            // the semaphore bounds the number of tasks, so the backing queue itself never fills up
+            this.delegate = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "basecore-db-" + threadCounter.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        this.acquireSlot();
+        this.outstandingTasks.incrementAndGet();
+
+        try {
+            this.delegate.execute(() -> {
+                try {
+                    command.run();
+                } finally {
+                    this.outstandingTasks.decrementAndGet();
+                    this.slots.release();
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            this.outstandingTasks.decrementAndGet();
+            this.slots.release();
+            throw exception;
+        }
+    }
+
+    public int getOutstandingTasks() {
+        return this.outstandingTasks.get();
+    }
+
+    public void shutdown(long timeout, TimeUnit unit) {
+        this.delegate.shutdown();
+        try {
+            if (!this.delegate.awaitTermination(timeout, unit)) {
+                this.logger.warning("Database executor did not finish " + this.outstandingTasks.get() + " task(s) in time, interrupting them");
+                this.delegate.shutdownNow();
+            }
+        } catch (InterruptedException exception) {
+            this.delegate.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acquireSlot() {
+        if (this.delegate.isShutdown()) {
+            throw new RejectedExecutionException("Database executor has been shut down");
+        }
+
+        // waiting for a slot on the main thread would stall the tick for as long as the database is slow
+        if (this.rejectionPolicy == RejectionPolicy.REJECT || Bukkit.isPrimaryThread()) {
+            if (!this.slots.tryAcquire()) {
+                throw new RejectedExecutionException("Database queue is full (" + this.queueCapacity + " tasks pending)");
+            }
+            return;
+        }
+
+        try {
+            this.slots.acquire();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a free database queue slot", exception);
+        }
+    }
+}
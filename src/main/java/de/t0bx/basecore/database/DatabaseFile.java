@@ -36,12 +36,139 @@ public class DatabaseFile {
                 this.jsonDocument.append("password", "password");
                 this.jsonDocument.append("database", "database");
             }
+
+            this.appendDefault("poolMinimumSize", 2);
+            this.appendDefault("poolMaximumSize", 10);
+            this.appendDefault("poolIdleTimeoutMillis", 600000);
+            this.appendDefault("poolBorrowTimeoutMillis", 5000);
+            this.appendDefault("poolValidationTimeoutMillis", 2000);
+            this.appendDefault("poolLeakDetectionThresholdMillis", 30000);
+            this.appendDefault("poolStatementCacheSize", 64);
+            this.appendDefault("poolConnectTimeoutMillis", 5000);
+            this.appendDefault("poolSocketTimeoutMillis", 60000);
+            this.appendDefault("retryMaxAttempts", 3);
+            this.appendDefault("retryBaseDelayMillis", 50);
+            this.appendDefault("retryMaxDelayMillis", 1000);
+            this.appendDefault("circuitBreakerFailureThreshold", 5);
+            this.appendDefault("circuitBreakerOpenMillis", 10000);
+            this.appendDefault("slowQueryThresholdMillis", 250);
+            this.appendDefault("executorMode", "virtual");
+            this.appendDefault("executorThreads", 8);
+            this.appendDefault("executorQueueCapacity", 10000);
+            this.appendDefault("executorRejectionPolicy", "caller_blocks");
+            this.appendDefault("coinsWriteBehind", false);
+            this.appendDefault("coinsFlushIntervalTicks", 100);
+            this.appendDefault("coinsFlushThreshold", 256);
+            this.appendDefault("coinsCacheMaximumSize", 10000);
+            this.appendDefault("coinsCacheOfflineTtlSeconds", 300);
+            this.appendDefault("coinsCacheStorage", "primitive");
+            this.appendDefault("coinsLeaderboardSize", 1000);
+            this.appendDefault("coinsSyncDebounceTicks", 2);
+            this.appendDefault("coinsCoalesceEvents", false);
+            this.appendDefault("coinsJournalEnabled", true);
+            this.appendDefault("coinsJournalSizeMb", 16);
+            this.appendDefault("profileCachePersistent", true);
+            this.appendDefault("profileCacheMaximumSize", 10000);
+            this.appendDefault("profileCacheTtlMinutes", 360);
+            this.appendDefault("profileCacheNegativeTtlMinutes", 10);
+            this.appendDefault("profileCacheTexturesTtlMinutes", 60);
             this.jsonDocument.save(this.databaseFile);
         } catch (Exception exception) {
             throw new RuntimeException(exception);
         }
     }
 
+    private void appendDefault(String key, Integer value) {
+        if (!this.jsonDocument.contains(key)) {
+            this.jsonDocument.append(key, value);
+        }
+    }
+
+    private void appendDefault(String key, Boolean value) {
+        if (!this.jsonDocument.contains(key)) {
+            this.jsonDocument.append(key, value);
+        }
+    }
+
+    private void appendDefault(String key, String value) {
+        if (!this.jsonDocument.contains(key)) {
+            this.jsonDocument.append(key, value);
+        }
+    }
+
+    public DatabaseExecutor createExecutor() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        if (this.jsonDocument == null) {
+            return new DatabaseExecutor(DatabaseExecutor.Mode.VIRTUAL, 8, 10000,
+                    DatabaseExecutor.RejectionPolicy.CALLER_BLOCKS, BaseAPI.getApi().getLogger());
+        }
+
+        DatabaseExecutor.Mode mode = "platform".equalsIgnoreCase(this.jsonDocument.getString("executorMode"))
+                ? DatabaseExecutor.Mode.PLATFORM
+                : DatabaseExecutor.Mode.VIRTUAL;
+        DatabaseExecutor.RejectionPolicy rejectionPolicy = "reject".equalsIgnoreCase(this.jsonDocument.getString("executorRejectionPolicy"))
+                ? DatabaseExecutor.RejectionPolicy.REJECT
+                : DatabaseExecutor.RejectionPolicy.CALLER_BLOCKS;
+
+        return new DatabaseExecutor(mode,
+                this.jsonDocument.getInt("executorThreads"),
+                this.jsonDocument.getInt("executorQueueCapacity"),
+                rejectionPolicy,
+                BaseAPI.getApi().getLogger()
+        );
+    }
+
+    public PoolSettings getPoolSettings() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        if (this.jsonDocument == null) {
+            return new PoolSettings(2, 10, 600000L, 5000L, 2000L, 30000L, 64, 5000L, 60000L);
+        }
+        return new PoolSettings(
+                this.jsonDocument.getInt("poolMinimumSize"),
+                this.jsonDocument.getInt("poolMaximumSize"),
+                this.jsonDocument.getLong("poolIdleTimeoutMillis"),
+                this.jsonDocument.getLong("poolBorrowTimeoutMillis"),
+                this.jsonDocument.getLong("poolValidationTimeoutMillis"),
+                this.jsonDocument.getLong("poolLeakDetectionThresholdMillis"),
+                this.jsonDocument.getInt("poolStatementCacheSize"),
+                this.jsonDocument.getLong("poolConnectTimeoutMillis"),
+                this.jsonDocument.getLong("poolSocketTimeoutMillis")
+        );
+    }
+
+    public RetryPolicy createRetryPolicy() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        if (this.jsonDocument == null) {
+            return new RetryPolicy(3, 50L, 1000L);
+        }
+        return new RetryPolicy(
+                this.jsonDocument.getInt("retryMaxAttempts"),
+                this.jsonDocument.getLong("retryBaseDelayMillis"),
+                this.jsonDocument.getLong("retryMaxDelayMillis")
+        );
+    }
+
+    public QueryMetrics createQueryMetrics() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        long slowQueryThresholdMillis = 250L;
+        if (this.jsonDocument != null && this.jsonDocument.contains("slowQueryThresholdMillis")) {
+            slowQueryThresholdMillis = this.jsonDocument.getLong("slowQueryThresholdMillis");
+        }
+        return new QueryMetrics(slowQueryThresholdMillis, BaseAPI.getApi().getLogger());
+    }
+
+    public CircuitBreaker createCircuitBreaker() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        if (this.jsonDocument == null) {
+            return new CircuitBreaker(5, 10000L, BaseAPI.getApi().getLogger());
+        }
+        return new CircuitBreaker(
+                this.jsonDocument.getInt("circuitBreakerFailureThreshold"),
+                this.jsonDocument.getLong("circuitBreakerOpenMillis"),
+                BaseAPI.getApi().getLogger()
+        );
+    }
+
     public String getDatabaseHost() {
         this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
         if (this.jsonDocument != null) {
@@ -81,4 +208,132 @@ public class DatabaseFile {
         }
         return null;
     }
+
+    public boolean isCoinsWriteBehind() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        if (this.jsonDocument != null && this.jsonDocument.contains("coinsWriteBehind")) {
+            return this.jsonDocument.getBoolean("coinsWriteBehind");
+        }
+        return false;
+    }
+
+    public long getCoinsFlushIntervalTicks() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        if (this.jsonDocument != null && this.jsonDocument.contains("coinsFlushIntervalTicks")) {
+            return this.jsonDocument.getLong("coinsFlushIntervalTicks");
+        }
+        return 100L;
+    }
+
+    public int getCoinsFlushThreshold() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        if (this.jsonDocument != null && this.jsonDocument.contains("coinsFlushThreshold")) {
+            return this.jsonDocument.getInt("coinsFlushThreshold");
+        }
+        return 256;
+    }
+
+    public int getCoinsCacheMaximumSize() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        if (this.jsonDocument != null && this.jsonDocument.contains("coinsCacheMaximumSize")) {
+            return this.jsonDocument.getInt("coinsCacheMaximumSize");
+        }
+        return 10000;
+    }
+
+    public long getCoinsCacheOfflineTtlSeconds() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        if (this.jsonDocument != null && this.jsonDocument.contains("coinsCacheOfflineTtlSeconds")) {
+            return this.jsonDocument.getLong("coinsCacheOfflineTtlSeconds");
+        }
+        return 300L;
+    }
+
+    public String getCoinsCacheStorage() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        if (this.jsonDocument != null && this.jsonDocument.contains("coinsCacheStorage")) {
+            return this.jsonDocument.getString("coinsCacheStorage");
+        }
+        return "primitive";
+    }
+
+    public int getCoinsLeaderboardSize() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        if (this.jsonDocument != null && this.jsonDocument.contains("coinsLeaderboardSize")) {
+            return this.jsonDocument.getInt("coinsLeaderboardSize");
+        }
+        return 1000;
+    }
+
+    public long getCoinsSyncDebounceTicks() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        if (this.jsonDocument != null && this.jsonDocument.contains("coinsSyncDebounceTicks")) {
+            return this.jsonDocument.getLong("coinsSyncDebounceTicks");
+        }
+        return 2L;
+    }
+
+    public boolean isCoinsCoalesceEvents() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        if (this.jsonDocument != null && this.jsonDocument.contains("coinsCoalesceEvents")) {
+            return this.jsonDocument.getBoolean("coinsCoalesceEvents");
+        }
+        return false;
+    }
+
+    public boolean isCoinsJournalEnabled() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        if (this.jsonDocument != null && this.jsonDocument.contains("coinsJournalEnabled")) {
+            return this.jsonDocument.getBoolean("coinsJournalEnabled");
+        }
+        return true;
+    }
+
+    public int getCoinsJournalSizeMb() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        if (this.jsonDocument != null && this.jsonDocument.contains("coinsJournalSizeMb")) {
+            return this.jsonDocument.getInt("coinsJournalSizeMb");
+        }
+        return 16;
+    }
+
+    public boolean isProfileCachePersistent() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        if (this.jsonDocument != null && this.jsonDocument.contains("profileCachePersistent")) {
+            return this.jsonDocument.getBoolean("profileCachePersistent");
+        }
+        return true;
+    }
+
+    public int getProfileCacheMaximumSize() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        if (this.jsonDocument != null && this.jsonDocument.contains("profileCacheMaximumSize")) {
+            return this.jsonDocument.getInt("profileCacheMaximumSize");
+        }
+        return 10000;
+    }
+
+    public long getProfileCacheTtlMinutes() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        if (this.jsonDocument != null && this.jsonDocument.contains("profileCacheTtlMinutes")) {
+            return this.jsonDocument.getLong("profileCacheTtlMinutes");
+        }
+        return 360L;
+    }
+
+    public long getProfileCacheNegativeTtlMinutes() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        if (this.jsonDocument != null && this.jsonDocument.contains("profileCacheNegativeTtlMinutes")) {
+            return this.jsonDocument.getLong("profileCacheNegativeTtlMinutes");
+        }
+        return 10L;
+    }
+
+    public long getProfileCacheTexturesTtlMinutes() {
+        this.jsonDocument = JsonDocument.loadDocument(this.databaseFile);
+        if (this.jsonDocument != null && this.jsonDocument.contains("profileCacheTexturesTtlMinutes")) {
+            return this.jsonDocument.getLong("profileCacheTexturesTtlMinutes");
+        }
+        return 60L;
+    }
 }
@@ -14,7 +14,9 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 public interface IMySQLManager {
 
@@ -26,8 +28,36 @@ public interface IMySQLManager {
 
     CompletableFuture<Void> updateAsync(String query, Object... params);
 
+    int[] updateBatch(String query, List<Object[]> params) throws SQLException;
+
+    CompletableFuture<int[]> updateBatchAsync(String query, List<Object[]> params);
+
+    void inTransaction(TransactionBlock block) throws SQLException;
+
+    CompletableFuture<Void> inTransactionAsync(TransactionBlock block);
+
+    <T> T withConnection(ConnectionFunction<T> function) throws SQLException;
+
+    <T> CompletableFuture<T> withConnectionAsync(ConnectionFunction<T> function);
+
     <T> List<T> query(String query, Function<ResultSet, T> resultHandler, Object... params) throws SQLException;
 
     <T> CompletableFuture<List<T>> queryAsync(String query, Function<ResultSet, T> resultHandler, Object... params);
 
+    <T> Stream<T> stream(String query, RowMapper<T> rowMapper, Object... params) throws SQLException;
+
+    <T> Stream<T> stream(String query, int fetchSize, RowMapper<T> rowMapper, Object... params) throws SQLException;
+
+    <T> long forEachRow(String query, int fetchSize, RowMapper<T> rowMapper, Consumer<? super T> consumer, Object... params) throws SQLException;
+
+    <T> CompletableFuture<Long> forEachRowAsync(String query, int fetchSize, RowMapper<T> rowMapper, Consumer<? super T> consumer, Object... params);
+
+    ConnectionPool getConnectionPool();
+
+    RetryPolicy getRetryPolicy();
+
+    CircuitBreaker getCircuitBreaker();
+
+    QueryMetrics getQueryMetrics();
+
 }
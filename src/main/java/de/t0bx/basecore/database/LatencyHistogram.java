@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.database;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets in the style of HdrHistogram: every power of two is split
+ * into 16 linear sub-buckets, so a recorded value is off by at most 1/16 (6.25%) from the reported percentile.
+ * Values are microseconds.
+ */
+class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private static final AtomicLongFieldUpdater<LatencyHistogram> MAX_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(LatencyHistogram.class, "max");
+
+    private final AtomicLongArray counts;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private volatile long max;
+
+    LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+    }
+
+    void record(long micros) {
+        long value = Math.max(0L, micros);
+        this.counts.incrementAndGet(index(value));
+        this.count.increment();
+        this.sum.add(value);
+
+        long max;
+        while (value > (max = this.max)) {
+            if (MAX_UPDATER.compareAndSet(this, max, value)) break;
+        }
+    }
+
+    long getCount() {
+        return this.count.sum();
+    }
+
+    long getSum() {
+        return this.sum.sum();
+    }
+
+    long getMax() {
+        return this.max;
+    }
+
+    /**
+     * @return the upper bound of the bucket that holds the given percentile (0-100), 0 if nothing was recorded
+     */
+    long percentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = this.counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0L) {
+            return 0L;
+        }
+
+        long rank = Math.max(1L, (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentile)) / 100.0));
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), this.max);
+            }
+        }
+        return this.max;
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        long lower = (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -11,17 +11,22 @@
 package de.t0bx.basecore.database;
 
 import de.t0bx.basecore.BaseAPI;
+import org.bukkit.Bukkit;
 
 import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 import java.util.logging.Logger;
 
 public class MySQLManager implements IMySQLManager {
 
-    private Connection connection = null;
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private ConnectionPool connectionPool = null;
 
     private final Logger logger;
 
@@ -33,14 +38,33 @@ public class MySQLManager implements IMySQLManager {
 
     private final String url;
 
-    public MySQLManager(String host, int port, String username, String password, String database) {
+    private final PoolSettings poolSettings;
+
+    private final Executor executor;
+
+    private final RetryPolicy retryPolicy;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final QueryMetrics queryMetrics;
+
+    public MySQLManager(String host, int port, String username, String password, String database,
+                        PoolSettings poolSettings, Executor executor, RetryPolicy retryPolicy, CircuitBreaker circuitBreaker,
+                        QueryMetrics queryMetrics) {
         this.host = host;
         this.port = port;
         this.username = username;
         this.password = password;
         this.database = database;
+        this.poolSettings = poolSettings;
+        this.executor = executor;
+        this.retryPolicy = retryPolicy;
+        this.circuitBreaker = circuitBreaker;
+        this.queryMetrics = queryMetrics;
 
-        this.url = "jdbc:mysql://" + host + ":" + port + "/" + database;
+        this.url = "jdbc:mysql://" + host + ":" + port + "/" + database + "?rewriteBatchedStatements=true&useServerPrepStmts=true&useCursorFetch=true"
+                + "&tcpKeepAlive=true&connectTimeout=" + poolSettings.getConnectTimeoutMillis()
+                + "&socketTimeout=" + poolSettings.getSocketTimeoutMillis();
 
         this.logger = BaseAPI.getApi().getLogger();
     }
@@ -50,8 +74,9 @@ public class MySQLManager implements IMySQLManager {
         try {
             Class.forName("com.mysql.cj.jdbc.Driver");
 
-            this.connection = DriverManager.getConnection(this.url, this.username, this.password);
-            this.logger.info("Connected to MySQL!");
+            this.connectionPool = new ConnectionPool(this.url, this.username, this.password, this.poolSettings, this.queryMetrics, this.logger);
+            this.connectionPool.start();
+            this.logger.info("Connected to MySQL! (pool size " + this.poolSettings.getMinimumSize() + "-" + this.poolSettings.getMaximumSize() + ")");
         } catch (ClassNotFoundException exception) {
             throw new SQLException("MySQL-Driver not found", exception);
         }
@@ -59,75 +84,272 @@ public class MySQLManager implements IMySQLManager {
 
     @Override
     public void disconnect() throws SQLException {
-        if (connection != null && !connection.isClosed()) {
-            connection.close();
+        if (this.connectionPool != null) {
+            this.connectionPool.close();
+            this.connectionPool = null;
             this.logger.info("Connection to MySQL has been closed!");
         }
     }
 
     @Override
     public void update(String query, Object... params) throws SQLException {
-        ensureConnection();
+        this.execute(false, pooledConnection -> {
+            try (pooledConnection) {
+                return pooledConnection.executeUpdate(query, params);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> updateAsync(String query, Object... params) {
+        return this.async(() -> {
+            update(query, params);
+            return null;
+        }, "Error while updating MySQL");
+    }
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            setParameters(preparedStatement, params);
-            preparedStatement.executeUpdate();
+    @Override
+    public int[] updateBatch(String query, List<Object[]> params) throws SQLException {
+        if (params.isEmpty()) {
+            return new int[0];
         }
+
+        return this.execute(false, pooledConnection -> {
+            try (pooledConnection) {
+                return pooledConnection.executeBatch(query, params);
+            }
+        });
     }
 
     @Override
-    public CompletableFuture<Void> updateAsync(String query, Object... params) {
-        return CompletableFuture.runAsync(() -> {
+    public CompletableFuture<int[]> updateBatchAsync(String query, List<Object[]> params) {
+        return this.async(() -> updateBatch(query, params), "Error while executing MySQL batch");
+    }
+
+    /**
+     * Runs the block in a transaction. After a deadlock or lock wait timeout the whole block is run again, so it
+     * must not have side effects outside the database.
+     */
+    @Override
+    public void inTransaction(TransactionBlock block) throws SQLException {
+        this.execute(false, pooledConnection -> {
+            try (pooledConnection) {
+                runInTransaction(pooledConnection, block);
+                return null;
+            }
+        });
+    }
+
+    static void runInTransaction(PooledConnection pooledConnection, TransactionBlock block) throws SQLException {
+        Connection connection = pooledConnection.getConnection();
+        connection.setAutoCommit(false);
+
+        try {
+            block.execute(new TxContext(pooledConnection));
+            connection.commit();
+        } catch (SQLException | RuntimeException exception) {
             try {
-                update(query, params);
+                connection.rollback();
+            } catch (SQLException rollbackException) {
+                exception.addSuppressed(rollbackException);
+                pooledConnection.markBroken();
+            }
+            if (exception instanceof SQLException sqlException) {
+                pooledConnection.markBrokenIfFatal(sqlException);
+            }
+            throw exception;
+        } finally {
+            try {
+                connection.setAutoCommit(true);
             } catch (SQLException exception) {
-                throw new RuntimeException("Error while updating MySQL", exception);
+                pooledConnection.markBroken();
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> inTransactionAsync(TransactionBlock block) {
+        return this.async(() -> {
+            inTransaction(block);
+            return null;
+        }, "Error while executing MySQL transaction");
+    }
+
+    @Override
+    public <T> T withConnection(ConnectionFunction<T> function) throws SQLException {
+        return this.execute(false, pooledConnection -> {
+            try (pooledConnection) {
+                return function.apply(new TxContext(pooledConnection));
             }
         });
     }
 
+    @Override
+    public <T> CompletableFuture<T> withConnectionAsync(ConnectionFunction<T> function) {
+        return this.async(() -> withConnection(function), "Error while executing MySQL statements");
+    }
+
     @Override
     public <T> List<T> query(String query, Function<ResultSet, T> resultHandler, Object... params) throws SQLException {
-        ensureConnection();
+        return this.execute(true, pooledConnection -> {
+            try (pooledConnection) {
+                return pooledConnection.executeQuery(query, resultHandler, params);
+            }
+        });
+    }
 
-        List<T> results = new ArrayList<>();
-        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            setParameters(preparedStatement, params);
+    @Override
+    public <T> CompletableFuture<List<T>> queryAsync(String query, Function<ResultSet, T> resultHandler, Object... params) {
+        return this.async(() -> query(query, resultHandler, params), "Error while querying MySQL");
+    }
 
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                while (resultSet.next()) {
-                    results.add(resultHandler.apply(resultSet));
-                }
+    /**
+     * Streams the rows of the query with a server-side cursor. The stream holds a pooled connection until it is
+     * closed, so it must be consumed in a try-with-resources block and never on the main thread. Only opening the
+     * cursor is retried; errors while reading rows are thrown to the consumer.
+     */
+    @Override
+    public <T> Stream<T> stream(String query, RowMapper<T> rowMapper, Object... params) throws SQLException {
+        return stream(query, DEFAULT_FETCH_SIZE, rowMapper, params);
+    }
+
+    @Override
+    public <T> Stream<T> stream(String query, int fetchSize, RowMapper<T> rowMapper, Object... params) throws SQLException {
+        return this.execute(true, pooledConnection -> {
+            try {
+                return pooledConnection.executeStream(query, fetchSize, rowMapper, params).onClose(pooledConnection::close);
+            } catch (SQLException | RuntimeException exception) {
+                pooledConnection.close();
+                throw exception;
             }
+        });
+    }
+
+    /**
+     * @return the number of rows passed to the consumer
+     */
+    @Override
+    public <T> long forEachRow(String query, int fetchSize, RowMapper<T> rowMapper, Consumer<? super T> consumer, Object... params) throws SQLException {
+        long[] rows = new long[1];
+        try (Stream<T> stream = stream(query, fetchSize, rowMapper, params)) {
+            stream.forEach(row -> {
+                consumer.accept(row);
+                rows[0]++;
+            });
         }
+        return rows[0];
+    }
 
-        return results;
+    @Override
+    public <T> CompletableFuture<Long> forEachRowAsync(String query, int fetchSize, RowMapper<T> rowMapper, Consumer<? super T> consumer, Object... params) {
+        return this.async(() -> forEachRow(query, fetchSize, rowMapper, consumer, params), "Error while streaming MySQL query");
     }
 
     @Override
-    public <T> CompletableFuture<List<T>> queryAsync(String query, Function<ResultSet, T> resultHandler, Object... params) {
-        return CompletableFuture.supplyAsync(() -> {
+    public ConnectionPool getConnectionPool() {
+        return this.connectionPool;
+    }
+
+    @Override
+    public RetryPolicy getRetryPolicy() {
+        return this.retryPolicy;
+    }
+
+    @Override
+    public CircuitBreaker getCircuitBreaker() {
+        return this.circuitBreaker;
+    }
+
+    @Override
+    public QueryMetrics getQueryMetrics() {
+        return this.queryMetrics;
+    }
+
+    /**
+     * Runs the call with a borrowed connection that the call has to close. Transient errors are retried with backoff:
+     * failures to get a connection and rollbacks always, lost connections only for read-only calls, because a write
+     * may already have been applied. Retries never sleep on the main thread.
+     */
+    private <T> T execute(boolean readOnly, ConnectionCall<T> call) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            this.circuitBreaker.acquirePermission();
+
+            boolean borrowed = false;
             try {
-                return query(query, resultHandler, params);
+                PooledConnection pooledConnection = borrowConnection();
+                borrowed = true;
+                T result = call.apply(pooledConnection);
+                this.circuitBreaker.recordSuccess();
+                if (attempt > 1) {
+                    this.retryPolicy.recordRetriedSuccess();
+                }
+                return result;
             } catch (SQLException exception) {
-                throw new RuntimeException("Error while querying MySQL", exception);
+                SQLErrorClassifier.Category category = SQLErrorClassifier.classify(exception);
+                if (category == SQLErrorClassifier.Category.CONNECTION) {
+                    this.circuitBreaker.recordFailure();
+                } else {
+                    this.circuitBreaker.recordSuccess();
+                }
+
+                boolean retryable = category == SQLErrorClassifier.Category.ROLLBACK
+                        || (category == SQLErrorClassifier.Category.CONNECTION && (readOnly || !borrowed));
+                if (!retryable || Bukkit.isPrimaryThread()) {
+                    throw exception;
+                }
+                if (!this.retryPolicy.canRetry(attempt)) {
+                    this.retryPolicy.recordExhausted();
+                    throw exception;
+                }
+                this.retryPolicy.backoff(attempt);
+            } catch (RuntimeException exception) {
+                this.circuitBreaker.recordSuccess();
+                throw exception;
             }
-        });
+        }
     }
 
-    private void ensureConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            if (this.url != null && this.username != null && this.password != null) {
-                this.connection = DriverManager.getConnection(this.url, this.username, this.password);
-            } else {
-                throw new SQLException("MySQL-Connection has not been initialized!");
-            }
+    /**
+     * Fails at once while the circuit breaker is open, so callers do not fill the executor queue with calls that
+     * can only time out. A rejected submit is returned as a failed future as well, so no async method throws.
+     */
+    private <T> CompletableFuture<T> async(SQLCall<T> call, String errorMessage) {
+        if (!this.circuitBreaker.isCallPermitted()) {
+            return CompletableFuture.failedFuture(new RuntimeException(errorMessage, this.circuitBreaker.reject()));
+        }
+
+        long enqueuedAt = this.queryMetrics.enqueued();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                this.queryMetrics.dequeued(enqueuedAt);
+                try {
+                    return call.call();
+                } catch (SQLException exception) {
+                    throw new RuntimeException(errorMessage, exception);
+                }
+            }, this.executor);
+        } catch (RuntimeException exception) {
+            // rejected by the executor, the task will never start
+            this.queryMetrics.dequeued(enqueuedAt);
+            return CompletableFuture.failedFuture(new RuntimeException(errorMessage, exception));
         }
     }
 
-    private void setParameters(PreparedStatement preparedStatement, Object... params) throws SQLException {
-        for (int i = 0; i < params.length; i++) {
-            preparedStatement.setObject(i + 1, params[i]);
+    private PooledConnection borrowConnection() throws SQLException {
+        ConnectionPool pool = this.connectionPool;
+        if (pool == null) {
+            throw new SQLException("MySQL-Connection has not been initialized!");
         }
+        return pool.borrow();
+    }
+
+    @FunctionalInterface
+    private interface ConnectionCall<T> {
+        T apply(PooledConnection pooledConnection) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface SQLCall<T> {
+        T call() throws SQLException;
     }
 }
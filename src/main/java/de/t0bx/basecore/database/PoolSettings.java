@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+package de.t0bx.basecore.database;
+
+import lombok.Getter;
+
+@Getter
+public class PoolSettings {
+
+    private final int minimumSize;
+    private final int maximumSize;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+    private final long validationTimeoutMillis;
+    private final long leakDetectionThresholdMillis;
+    private final int statementCacheSize;
+    private final long connectTimeoutMillis;
+    private final long socketTimeoutMillis;
+
+    public PoolSettings(int minimumSize, int maximumSize, long idleTimeoutMillis, long borrowTimeoutMillis,
+                        long validationTimeoutMillis, long leakDetectionThresholdMillis, int statementCacheSize,
+                        long connectTimeoutMillis, long socketTimeoutMillis) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum pool size must be at least 1");
+        }
+        this.maximumSize = maximumSize;
+        this.minimumSize = Math.max(0, Math.min(minimumSize, maximumSize));
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.validationTimeoutMillis = validationTimeoutMillis;
+        this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.connectTimeoutMillis = Math.max(0L, connectTimeoutMillis);
+        this.socketTimeoutMillis = Math.max(0L, socketTimeoutMillis);
+    }
+}
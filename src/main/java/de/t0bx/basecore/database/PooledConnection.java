@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+package de.t0bx.basecore.database;
+
+import lombok.Getter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A physical connection owned by the {@link ConnectionPool}. Closing it hands it back to the pool
+ * instead of closing the underlying session.
+ */
+public class PooledConnection implements AutoCloseable {
+
+    private final ConnectionPool pool;
+
+    @Getter
+    private final Connection connection;
+
+    private final StatementCache statementCache;
+
+    private final QueryMetrics queryMetrics;
+
+    private volatile long lastReturnedAt;
+    private volatile long borrowedAt;
+    private volatile Throwable borrowTrace;
+    private volatile boolean leakReported;
+    private volatile boolean broken;
+    private volatile boolean borrowed;
+
+    PooledConnection(ConnectionPool pool, Connection connection, StatementCache statementCache, QueryMetrics queryMetrics) {
+        this.pool = pool;
+        this.connection = connection;
+        this.statementCache = statementCache;
+        this.queryMetrics = queryMetrics;
+        this.lastReturnedAt = System.currentTimeMillis();
+    }
+
+    int executeUpdate(String sql, Object... params) throws SQLException {
+        long start = this.queryMetrics.begin();
+        PreparedStatement preparedStatement = null;
+        boolean failed = true;
+        try {
+            preparedStatement = this.statementCache.acquire(this.connection, sql);
+            setParameters(preparedStatement, params);
+            int result = preparedStatement.executeUpdate();
+            failed = false;
+            return result;
+        } catch (SQLException exception) {
+            this.markBrokenIfFatal(exception);
+            throw exception;
+        } finally {
+            if (preparedStatement != null) {
+                this.statementCache.release(sql, preparedStatement, failed);
+            }
+            this.queryMetrics.end(sql, start, 1, params.length, failed);
+        }
+    }
+
+    int[] executeBatch(String sql, List<Object[]> params) throws SQLException {
+        long start = this.queryMetrics.begin();
+        PreparedStatement preparedStatement = null;
+        boolean failed = true;
+        try {
+            preparedStatement = this.statementCache.acquire(this.connection, sql);
+            for (Object[] row : params) {
+                setParameters(preparedStatement, row);
+                preparedStatement.addBatch();
+            }
+            int[] result = preparedStatement.executeBatch();
+            failed = false;
+            return result;
+        } catch (SQLException exception) {
+            this.markBrokenIfFatal(exception);
+            throw exception;
+        } finally {
+            if (preparedStatement != null) {
+                this.statementCache.release(sql, preparedStatement, failed);
+            }
+            this.queryMetrics.end(sql, start, params.size(), countParameters(params), failed);
+        }
+    }
+
+    <T> List<T> executeQuery(String sql, Function<ResultSet, T> resultHandler, Object... params) throws SQLException {
+        long start = this.queryMetrics.begin();
+        PreparedStatement preparedStatement = null;
+        boolean failed = true;
+        try {
+            preparedStatement = this.statementCache.acquire(this.connection, sql);
+            setParameters(preparedStatement, params);
+
+            List<T> results = new ArrayList<>();
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    results.add(resultHandler.apply(resultSet));
+                }
+            }
+            failed = false;
+            return results;
+        } catch (SQLException exception) {
+            this.markBrokenIfFatal(exception);
+            throw exception;
+        } finally {
+            if (preparedStatement != null) {
+                this.statementCache.release(sql, preparedStatement, failed);
+            }
+            this.queryMetrics.end(sql, start, 1, params.length, failed);
+        }
+    }
+
+    /**
+     * Opens a forward-only result set with the given fetch size and exposes it as a lazy stream. The statement
+     * bypasses the statement cache; closing the stream closes result set and statement but not the connection.
+     */
+    <T> Stream<T> executeStream(String sql, int fetchSize, RowMapper<T> rowMapper, Object... params) throws SQLException {
+        // only opening the cursor is timed, reading the rows depends on the consumer
+        long start = this.queryMetrics.begin();
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet;
+        try {
+            preparedStatement = this.connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            preparedStatement.setFetchSize(fetchSize);
+            setParameters(preparedStatement, params);
+            resultSet = preparedStatement.executeQuery();
+        } catch (SQLException exception) {
+            this.markBrokenIfFatal(exception);
+            if (preparedStatement != null) {
+                closeQuietly(preparedStatement);
+            }
+            this.queryMetrics.end(sql, start, 1, params.length, true);
+            throw exception;
+        }
+        this.queryMetrics.end(sql, start, 1, params.length, false);
+
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!resultSet.next()) {
+                        return false;
+                    }
+                    action.accept(rowMapper.map(resultSet));
+                    return true;
+                } catch (SQLException exception) {
+                    markBrokenIfFatal(exception);
+                    throw new RuntimeException("Error while streaming MySQL result", exception);
+                }
+            }
+        };
+
+        PreparedStatement openedStatement = preparedStatement;
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            closeQuietly(resultSet);
+            closeQuietly(openedStatement);
+        });
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+        }
+    }
+
+    private static int countParameters(List<Object[]> rows) {
+        int parameters = 0;
+        for (Object[] row : rows) {
+            parameters += row.length;
+        }
+        return parameters;
+    }
+
+    static void setParameters(PreparedStatement preparedStatement, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            preparedStatement.setObject(i + 1, params[i]);
+        }
+    }
+
+    void markBorrowed(boolean captureTrace) {
+        this.borrowed = true;
+        this.borrowedAt = System.currentTimeMillis();
+        this.borrowTrace = captureTrace ? new Throwable("Connection borrowed here") : null;
+        this.leakReported = false;
+    }
+
+    void markReturned() {
+        this.borrowed = false;
+        this.borrowTrace = null;
+        this.lastReturnedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Flags the connection so the pool discards it instead of reusing it, e.g. after a communication error.
+     */
+    public void markBroken() {
+        this.broken = true;
+    }
+
+    /**
+     * Marks the connection as broken if the given exception indicates a dead session or a server that turned
+     * read-only after a failover, see {@link SQLErrorClassifier.Category#CONNECTION}.
+     */
+    public void markBrokenIfFatal(SQLException exception) {
+        if (SQLErrorClassifier.classify(exception) == SQLErrorClassifier.Category.CONNECTION) {
+            this.markBroken();
+        }
+    }
+
+    boolean isBroken() {
+        return this.broken;
+    }
+
+    boolean isBorrowed() {
+        return this.borrowed;
+    }
+
+    long getIdleMillis() {
+        return System.currentTimeMillis() - this.lastReturnedAt;
+    }
+
+    long getBorrowedMillis() {
+        return System.currentTimeMillis() - this.borrowedAt;
+    }
+
+    Throwable getBorrowTrace() {
+        return this.borrowTrace;
+    }
+
+    boolean isLeakReported() {
+        return this.leakReported;
+    }
+
+    void setLeakReported() {
+        this.leakReported = true;
+    }
+
+    void closePhysically() {
+        this.statementCache.clear();
+        try {
+            this.connection.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this.borrowed) {
+            this.pool.release(this);
+        }
+    }
+}
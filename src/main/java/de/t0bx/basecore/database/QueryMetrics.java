@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.database;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Collects latency histograms and error counts per SQL template, in-flight and queue gauges, and logs statements
+ * slower than the configured threshold.
+ * <p>
+ * SQL is grouped by template: numeric literals become {@code ?} and lists such as {@code IN (?, ?, ?)} collapse to
+ * {@code (?...)}, so chunked and limited queries share one entry.
+ */
+public class QueryMetrics {
+
+    static final String OTHER_STATEMENTS = "<other>";
+
+    private static final int MAXIMUM_TEMPLATES = 512;
+    private static final int MAXIMUM_LOGGED_SQL_LENGTH = 500;
+
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Getter
+    private final long slowQueryThresholdMillis;
+
+    private final Logger logger;
+
+    // raw SQL to the stats of its template, several raw strings may share one entry
+    private final ConcurrentHashMap<String, Stats> statsBySql;
+    private final ConcurrentHashMap<String, Stats> statsByTemplate;
+
+    private final AtomicInteger inFlight;
+    private final AtomicInteger queued;
+    private final Stats queueWait;
+
+    /**
+     * @param slowQueryThresholdMillis statements taking at least this long are logged, 0 or less disables the log
+     */
+    public QueryMetrics(long slowQueryThresholdMillis, Logger logger) {
+        this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+        this.logger = logger;
+        this.statsBySql = new ConcurrentHashMap<>();
+        this.statsByTemplate = new ConcurrentHashMap<>();
+        this.inFlight = new AtomicInteger();
+        this.queued = new AtomicInteger();
+        this.queueWait = new Stats("<queue wait>");
+    }
+
+    /**
+     * @return the start time to pass to {@link #end}
+     */
+    long begin() {
+        this.inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * @param rows       number of parameter rows, more than 1 for batches
+     * @param parameters number of bound parameters over all rows
+     */
+    void end(String sql, long startNanos, int rows, int parameters, boolean failed) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        this.inFlight.decrementAndGet();
+
+        Stats stats = this.stats(sql);
+        stats.histogram.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        if (failed) {
+            stats.errors.increment();
+        }
+
+        if (this.slowQueryThresholdMillis > 0L && elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(this.slowQueryThresholdMillis)) {
+            stats.slowCount.increment();
+            String loggedSql = sql.length() > MAXIMUM_LOGGED_SQL_LENGTH ? sql.substring(0, MAXIMUM_LOGGED_SQL_LENGTH) + "..." : sql;
+            this.logger.warning("Slow MySQL statement (" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + "ms, "
+                    + (rows > 1 ? rows + " rows, " : "") + parameters + " parameter(s)" + (failed ? ", failed" : "") + "): " + loggedSql);
+        }
+    }
+
+    /**
+     * @return the start time to pass to {@link #dequeued}
+     */
+    long enqueued() {
+        this.queued.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    void dequeued(long enqueuedNanos) {
+        this.queued.decrementAndGet();
+        this.queueWait.histogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - enqueuedNanos));
+    }
+
+    public int getInFlight() {
+        return this.inFlight.get();
+    }
+
+    public int getQueued() {
+        return this.queued.get();
+    }
+
+    public QueryMetricsSnapshot snapshot() {
+        List<StatementMetrics> statements = new ArrayList<>(this.statsByTemplate.size());
+        for (Stats stats : this.statsByTemplate.values()) {
+            statements.add(stats.toMetrics());
+        }
+        statements.sort(Comparator.comparingLong(StatementMetrics::getTotalMicros).reversed());
+        return new QueryMetricsSnapshot(System.currentTimeMillis(), this.inFlight.get(), this.queued.get(),
+                this.queueWait.toMetrics(), List.copyOf(statements));
+    }
+
+    private Stats stats(String sql) {
+        Stats stats = this.statsBySql.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+
+        String template = template(sql);
+        stats = this.statsByTemplate.get(template);
+        if (stats == null) {
+            if (this.statsByTemplate.size() >= MAXIMUM_TEMPLATES) {
+                template = OTHER_STATEMENTS;
+            }
+            stats = this.statsByTemplate.computeIfAbsent(template, Stats::new);
+        }
+        if (this.statsBySql.size() < MAXIMUM_TEMPLATES * 4) {
+            this.statsBySql.putIfAbsent(sql, stats);
+        }
+        return stats;
+    }
+
+    static String template(String sql) {
+        String template = NUMBER.matcher(sql).replaceAll("?");
+        template = PLACEHOLDER_LIST.matcher(template).replaceAll("(?...)");
+        return WHITESPACE.matcher(template).replaceAll(" ").trim();
+    }
+
+    private static final class Stats {
+
+        private final String template;
+        private final LatencyHistogram histogram;
+        private final LongAdder errors;
+        private final LongAdder slowCount;
+
+        private Stats(String template) {
+            this.template = template;
+            this.histogram = new LatencyHistogram();
+            this.errors = new LongAdder();
+            this.slowCount = new LongAdder();
+        }
+
+        private StatementMetrics toMetrics() {
+            return new StatementMetrics(this.template, this.histogram, this.errors.sum(), this.slowCount.sum());
+        }
+    }
+}
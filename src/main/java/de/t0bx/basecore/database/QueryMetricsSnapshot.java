@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.database;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class QueryMetricsSnapshot {
+
+    private final long timestamp;
+
+    /**
+     * Statements currently executing on a connection.
+     */
+    private final int inFlight;
+
+    /**
+     * Async calls submitted to the executor that have not started yet.
+     */
+    private final int queued;
+
+    /**
+     * Time async calls spent waiting for an executor thread, summarized like a statement.
+     */
+    private final StatementMetrics queueWait;
+
+    /**
+     * One entry per SQL template, sorted by total time spent, highest first.
+     */
+    private final List<StatementMetrics> statements;
+
+    QueryMetricsSnapshot(long timestamp, int inFlight, int queued, StatementMetrics queueWait, List<StatementMetrics> statements) {
+        this.timestamp = timestamp;
+        this.inFlight = inFlight;
+        this.queued = queued;
+        this.queueWait = queueWait;
+        this.statements = statements;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.database;
+
+import lombok.Getter;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exponential backoff with full jitter: before retry {@code n} the caller sleeps a random time between 0 and
+ * {@code min(maxDelayMillis, baseDelayMillis * 2^(n-1))}.
+ */
+public class RetryPolicy {
+
+    @Getter
+    private final int maxAttempts;
+
+    @Getter
+    private final long baseDelayMillis;
+
+    @Getter
+    private final long maxDelayMillis;
+
+    private final LongAdder retries;
+    private final LongAdder retriedSuccesses;
+    private final LongAdder exhausted;
+
+    /**
+     * @param maxAttempts attempts per call including the first, 1 disables retries
+     */
+    public RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMillis = Math.max(1L, baseDelayMillis);
+        this.maxDelayMillis = Math.max(this.baseDelayMillis, maxDelayMillis);
+        this.retries = new LongAdder();
+        this.retriedSuccesses = new LongAdder();
+        this.exhausted = new LongAdder();
+    }
+
+    boolean canRetry(int attempt) {
+        return attempt < this.maxAttempts;
+    }
+
+    void backoff(int attempt) throws SQLException {
+        long ceiling = Math.min(this.maxDelayMillis, this.baseDelayMillis << Math.min(attempt - 1, 20));
+        this.retries.increment();
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting to retry a MySQL call", exception);
+        }
+    }
+
+    void recordRetriedSuccess() {
+        this.retriedSuccesses.increment();
+    }
+
+    void recordExhausted() {
+        this.exhausted.increment();
+    }
+
+    /**
+     * @return the number of retries that were started
+     */
+    public long getRetries() {
+        return this.retries.sum();
+    }
+
+    /**
+     * @return the number of calls that succeeded after at least one retry
+     */
+    public long getRetriedSuccesses() {
+        return this.retriedSuccesses.sum();
+    }
+
+    /**
+     * @return the number of calls that failed with a retryable error after all attempts
+     */
+    public long getExhausted() {
+        return this.exhausted.sum();
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a result set. Unlike a plain {@link java.util.function.Function} it may throw
+ * {@link SQLException}.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    T map(ResultSet resultSet) throws SQLException;
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.database;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Set;
+
+/**
+ * Sorts SQL errors into the ones worth retrying and the ones that are not.
+ */
+public final class SQLErrorClassifier {
+
+    public enum Category {
+        /**
+         * The connection failed or points to a server that cannot take writes. Whether a statement that was already
+         * sent has been applied is unknown.
+         */
+        CONNECTION,
+        /**
+         * The server rolled the statement or transaction back, for example after a deadlock. It is safe to retry.
+         */
+        ROLLBACK,
+        OTHER
+    }
+
+    // lock wait timeout, deadlock
+    private static final Set<Integer> ROLLBACK_ERROR_CODES = Set.of(1205, 1213);
+
+    // too many connections, server shutdown, read-only after a failover, connection killed, connect failed, server gone away, lost connection
+    private static final Set<Integer> CONNECTION_ERROR_CODES = Set.of(1040, 1053, 1290, 1836, 1927, 2002, 2003, 2006, 2013);
+
+    private SQLErrorClassifier() {
+    }
+
+    public static Category classify(SQLException exception) {
+        if (exception instanceof CircuitOpenException) {
+            return Category.OTHER;
+        }
+
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (!(cause instanceof SQLException sqlException)) continue;
+
+            String sqlState = sqlException.getSQLState();
+            if (sqlException instanceof SQLTransactionRollbackException
+                    || ROLLBACK_ERROR_CODES.contains(sqlException.getErrorCode())
+                    || "40001".equals(sqlState)) {
+                return Category.ROLLBACK;
+            }
+            if (sqlException instanceof SQLRecoverableException
+                    || sqlException instanceof SQLTransientConnectionException
+                    || sqlException instanceof SQLNonTransientConnectionException
+                    || CONNECTION_ERROR_CODES.contains(sqlException.getErrorCode())
+                    || (sqlState != null && sqlState.startsWith("08"))) {
+                return Category.CONNECTION;
+            }
+        }
+        return Category.OTHER;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.database;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * Applies versioned schema migrations. Every scope keeps its own version history in the {@code schema_version}
+ * table. Pending migrations run in ascending order, each in its own transaction together with its version row.
+ * MySQL commits DDL implicitly, so migrations that change tables should be written to be re-runnable.
+ * A named MySQL lock keeps several servers from migrating the same scope at once.
+ */
+public class SchemaMigrator {
+
+    private static final String CREATE_VERSION_TABLE_SQL = "CREATE TABLE IF NOT EXISTS schema_version(scope VARCHAR(64) NOT NULL, "
+            + "version INT NOT NULL, description VARCHAR(255) NOT NULL, installed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+            + "PRIMARY KEY(scope, version))";
+    private static final String SELECT_VERSION_SQL = "SELECT MAX(version) AS version FROM schema_version WHERE scope = ?";
+    private static final String INSERT_VERSION_SQL = "INSERT INTO schema_version(scope, version, description) VALUES(?, ?, ?)";
+
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    private final IMySQLManager mySQLManager;
+    private final String scope;
+    private final Logger logger;
+    private final TreeMap<Integer, Migration> migrations;
+
+    public SchemaMigrator(IMySQLManager mySQLManager, String scope, Logger logger) {
+        this.mySQLManager = mySQLManager;
+        this.scope = scope;
+        this.logger = logger;
+        this.migrations = new TreeMap<>();
+    }
+
+    public SchemaMigrator register(int version, String description, TransactionBlock block) {
+        if (version < 1) {
+            throw new IllegalArgumentException("Migration versions start at 1");
+        }
+        if (this.migrations.putIfAbsent(version, new Migration(version, description, block)) != null) {
+            throw new IllegalArgumentException("Migration " + this.scope + " v" + version + " is already registered");
+        }
+        return this;
+    }
+
+    /**
+     * @return the schema version after all pending migrations have been applied
+     */
+    public int migrate() throws SQLException {
+        return this.mySQLManager.withConnection(context -> {
+            context.update(CREATE_VERSION_TABLE_SQL);
+
+            String lockName = "basecore_schema_" + this.scope;
+            List<Integer> locked = context.query("SELECT GET_LOCK(?, ?) AS locked", resultSet -> {
+                try {
+                    return resultSet.getInt("locked");
+                } catch (SQLException exception) {
+                    throw new RuntimeException(exception);
+                }
+            }, lockName, LOCK_TIMEOUT_SECONDS);
+            if (locked.isEmpty() || locked.getFirst() != 1) {
+                throw new SQLException("Timed out waiting for the schema lock of " + this.scope);
+            }
+
+            try {
+                int version = this.currentVersion(context);
+                for (Map.Entry<Integer, Migration> entry : this.migrations.tailMap(version, false).entrySet()) {
+                    Migration migration = entry.getValue();
+                    this.logger.info("Migrating schema " + this.scope + " to v" + migration.version + ": " + migration.description);
+
+                    try {
+                        MySQLManager.runInTransaction(context.getPooledConnection(), transaction -> {
+                            migration.block.execute(transaction);
+                            transaction.update(INSERT_VERSION_SQL, this.scope, migration.version, migration.description);
+                        });
+                    } catch (SQLException | RuntimeException exception) {
+                        throw new SQLException("Migration " + this.scope + " v" + migration.version + " failed", exception);
+                    }
+                    version = migration.version;
+                }
+                return version;
+            } finally {
+                context.query("SELECT RELEASE_LOCK(?) AS released", resultSet -> null, lockName);
+            }
+        });
+    }
+
+    private int currentVersion(TxContext context) throws SQLException {
+        List<Integer> versions = context.query(SELECT_VERSION_SQL, resultSet -> {
+            try {
+                return resultSet.getInt("version");
+            } catch (SQLException exception) {
+                throw new RuntimeException(exception);
+            }
+        }, this.scope);
+        return versions.isEmpty() ? 0 : versions.getFirst();
+    }
+
+    private static final class Migration {
+
+        private final int version;
+        private final String description;
+        private final TransactionBlock block;
+
+        private Migration(int version, String description, TransactionBlock block) {
+            this.version = version;
+            this.description = description;
+            this.block = block;
+        }
+    }
+}
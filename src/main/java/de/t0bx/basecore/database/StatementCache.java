@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+package de.t0bx.basecore.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of prepared statements for a single connection, keyed by SQL text.
+ * A statement is taken out of the cache while it is in use, so a second user of the same SQL on the
+ * same connection simply gets a fresh statement.
+ */
+class StatementCache {
+
+    private final int maxSize;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+
+    StatementCache(int maxSize, LongAdder hits, LongAdder misses) {
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.statements = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > StatementCache.this.maxSize) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    PreparedStatement acquire(Connection connection, String sql) throws SQLException {
+        PreparedStatement preparedStatement = this.statements.remove(sql);
+        if (preparedStatement != null) {
+            this.hits.increment();
+            return preparedStatement;
+        }
+
+        this.misses.increment();
+        return connection.prepareStatement(sql);
+    }
+
+    void release(String sql, PreparedStatement preparedStatement, boolean failed) {
+        if (failed || this.maxSize <= 0) {
+            closeQuietly(preparedStatement);
+            return;
+        }
+
+        try {
+            preparedStatement.clearParameters();
+        } catch (SQLException exception) {
+            closeQuietly(preparedStatement);
+            return;
+        }
+
+        PreparedStatement previous = this.statements.put(sql, preparedStatement);
+        if (previous != null && previous != preparedStatement) {
+            closeQuietly(previous);
+        }
+    }
+
+    void clear() {
+        this.statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement preparedStatement) {
+        try {
+            preparedStatement.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.database;
+
+import lombok.Getter;
+
+/**
+ * Point-in-time metrics of one SQL template. Latencies are microseconds.
+ */
+@Getter
+public class StatementMetrics {
+
+    private final String sql;
+    private final long count;
+    private final long errors;
+    private final long totalMicros;
+    private final long meanMicros;
+    private final long p50Micros;
+    private final long p95Micros;
+    private final long p99Micros;
+    private final long p999Micros;
+    private final long maxMicros;
+    private final long slowCount;
+
+    StatementMetrics(String sql, LatencyHistogram histogram, long errors, long slowCount) {
+        this.sql = sql;
+        this.count = histogram.getCount();
+        this.errors = errors;
+        this.totalMicros = histogram.getSum();
+        this.meanMicros = this.count == 0L ? 0L : this.totalMicros / this.count;
+        this.p50Micros = histogram.percentile(50.0);
+        this.p95Micros = histogram.percentile(95.0);
+        this.p99Micros = histogram.percentile(99.0);
+        this.p999Micros = histogram.percentile(99.9);
+        this.maxMicros = histogram.getMax();
+        this.slowCount = slowCount;
+    }
+}
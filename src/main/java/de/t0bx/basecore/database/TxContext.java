@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+package de.t0bx.basecore.database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Gives a {@link TransactionBlock} access to the connection of the running transaction.
+ * Everything executed through it is committed or rolled back together.
+ */
+public class TxContext {
+
+    private final PooledConnection pooledConnection;
+
+    TxContext(PooledConnection pooledConnection) {
+        this.pooledConnection = pooledConnection;
+    }
+
+    PooledConnection getPooledConnection() {
+        return this.pooledConnection;
+    }
+
+    public Connection getConnection() {
+        return this.pooledConnection.getConnection();
+    }
+
+    public int update(String query, Object... params) throws SQLException {
+        return this.pooledConnection.executeUpdate(query, params);
+    }
+
+    public int[] updateBatch(String query, List<Object[]> params) throws SQLException {
+        return this.pooledConnection.executeBatch(query, params);
+    }
+
+    public <T> List<T> query(String query, Function<ResultSet, T> resultHandler, Object... params) throws SQLException {
+        return this.pooledConnection.executeQuery(query, resultHandler, params);
+    }
+}
@@ -23,13 +23,29 @@ public class PlayerCoinsChangeEvent extends PlayerEvent {
 
     private final int currentCoins;
     private final int oldCoins;
+
+    /**
+     * Signed change of the balance, always {@code currentCoins - oldCoins}: negative for {@code removeCoins} and the
+     * difference, not the new amount, for {@code setCoins}. Earlier versions passed the positive amount for removals
+     * and the new balance for {@code setCoins}.
+     */
     private final int changedCoins;
 
+    /**
+     * Number of coin changes this event stands for; greater than 1 if changes of one tick were coalesced.
+     */
+    private final int changeCount;
+
     public PlayerCoinsChangeEvent(@NotNull Player who, int currentCoins, int oldCoins, int changedCoins) {
+        this(who, currentCoins, oldCoins, changedCoins, 1);
+    }
+
+    public PlayerCoinsChangeEvent(@NotNull Player who, int currentCoins, int oldCoins, int changedCoins, int changeCount) {
         super(who);
         this.currentCoins = currentCoins;
         this.oldCoins = oldCoins;
         this.changedCoins = changedCoins;
+        this.changeCount = changeCount;
     }
 
     @Override
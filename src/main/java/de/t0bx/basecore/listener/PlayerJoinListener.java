@@ -32,5 +32,7 @@ public class PlayerJoinListener implements Listener {
         }
 
         player.setMetadata("score", new FixedMetadataValue(BaseAPI.getApi(), scoreboardBuilder));
+
+        BaseAPI.getApi().getCoinsProvider().loadPlayer(player.getUniqueId());
     }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.listener;
+
+import de.t0bx.basecore.BaseAPI;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+
+public class PlayerLoginListener implements Listener {
+
+    private static final long LOAD_TIMEOUT_SECONDS = 5L;
+
+    /**
+     * Loads the balance while the player is still logging in, so it is cached once the player joins.
+     * The pre-login event is called asynchronously, waiting here does not block the main thread.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+
+        UUID uuid = event.getUniqueId();
+        try {
+            BaseAPI.getApi().getCoinsProvider().loadPlayer(uuid).get(LOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException exception) {
+            BaseAPI.getApi().getLogger().log(Level.WARNING, "Could not load coins of " + event.getName() + " before join", exception);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(PlayerLoginEvent event) {
+        // the player never joins, so no quit event will release the pin taken during pre-login
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            BaseAPI.getApi().getCoinsProvider().unloadPlayer(event.getPlayer().getUniqueId());
+        }
+    }
+}
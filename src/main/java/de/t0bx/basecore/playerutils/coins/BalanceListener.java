@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.coins;
+
+import java.util.UUID;
+
+/**
+ * Notified after every balance change of the {@link CoinsProvider}, on the thread that made the change.
+ */
+@FunctionalInterface
+public interface BalanceListener {
+
+    void onBalanceChange(UUID uuid, int oldCoins, int newCoins);
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+package de.t0bx.basecore.playerutils.coins;
+
+import java.util.UUID;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Storage behind the {@link CoinsCache}. Every entry holds the balance, the delta not yet written to the database,
+ * the number of writes in flight and the last access time. All operations on one key are atomic.
+ */
+interface BalanceMap {
+
+    long MISSING = Long.MIN_VALUE;
+
+    /**
+     * @return the balance or {@link #MISSING}; refreshes the access time of the entry
+     */
+    long get(UUID uuid);
+
+    boolean contains(UUID uuid);
+
+    int size();
+
+    /**
+     * @return the balance stored after the call
+     */
+    int putIfAbsent(UUID uuid, int coins);
+
+    /**
+     * Sets the balance to {@code amount}, or adds {@code amount} to it, and adds the difference to the pending delta.
+     * If the key is absent it is created with {@code initialCoins} when {@code create} is set. The difference is
+     * appended to the journal, if one is given, before the entry changes; a full journal leaves it unchanged.
+     *
+     * @throws ArithmeticException if the balance or the pending delta would overflow; the entry is left unchanged
+     *
+     * @return the old and new balance packed with {@link #pack}, or {@link #MISSING} if the key is absent
+     * (the packed change from {@link Integer#MIN_VALUE} to 0 collides with it and is not a reachable balance)
+     */
+    long apply(UUID uuid, boolean create, int initialCoins, boolean set, int amount, CoinsJournal journal);
+
+    /**
+     * Adds a change that was already persisted elsewhere. The pending delta is not touched and absent keys are
+     * not created.
+     *
+     * @return the packed change or {@link #MISSING} if the key is absent
+     * @throws ArithmeticException if the balance would overflow
+     */
+    long applyPersisted(UUID uuid, int delta);
+
+    /**
+     * Takes the pending delta and marks one write as in flight if it was not zero. An implementation may leave the
+     * delta pending and return 0 while too many writes are in flight; {@link #completeDrain} then reports it.
+     */
+    int drain(UUID uuid);
+
+    /**
+     * Ends an in-flight write. A failed write puts its delta back.
+     *
+     * @return whether the entry has a pending delta afterwards
+     */
+    boolean completeDrain(UUID uuid, int delta, boolean written);
+
+    /**
+     * Removes the entry if it has neither a pending delta nor a write in flight.
+     */
+    boolean removeIfClean(UUID uuid);
+
+    /**
+     * Visits every key together with its last access time in milliseconds.
+     */
+    void forEachAccess(ObjLongConsumer<UUID> consumer);
+
+    /**
+     * Visits up to {@code count} keys without a pending delta or a write in flight, picked at random, together with
+     * their last access time in milliseconds. The consumer runs outside any lock.
+     */
+    void sampleClean(int count, ObjLongConsumer<UUID> consumer);
+
+    static long pack(int oldCoins, int newCoins) {
+        return ((long) oldCoins << 32) | (newCoins & 0xFFFFFFFFL);
+    }
+
+    static int oldCoins(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    static int newCoins(long packed) {
+        return (int) packed;
+    }
+}
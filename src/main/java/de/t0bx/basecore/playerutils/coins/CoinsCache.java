@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+package de.t0bx.basecore.playerutils.coins;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Balance cache of the {@link CoinsProvider}. Every entry also carries the delta that has not been written to
+ * the database yet, so an entry is never evicted while it still has unsaved changes.
+ * Balances of online players are pinned, every other entry is evicted once it has not been accessed for the
+ * offline TTL or when the cache grows beyond its maximum size. An insert beyond the maximum size evicts right away,
+ * picking the least recently used clean entry out of a small random sample; {@link #cleanUp} evicts in exact LRU
+ * order. Only pinned and unsaved entries can keep the cache above its maximum size.
+ */
+public class CoinsCache {
+
+    public enum Storage {
+        /**
+         * Open-addressed primitive arrays, no allocation per lookup or change.
+         */
+        PRIMITIVE,
+        /**
+         * ConcurrentHashMap with one entry object per player.
+         */
+        BOXED
+    }
+
+    public static final long MISSING = BalanceMap.MISSING;
+
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+    private static final int EVICTION_ATTEMPTS = 4;
+
+    private final BalanceMap entries;
+    private final Set<UUID> pinnedPlayers;
+    private final Set<UUID> dirtyPlayers;
+
+    @Getter
+    private final Storage storage;
+
+    @Getter
+    private final int maximumSize;
+
+    @Getter
+    private final long offlineTtlMillis;
+
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    private volatile CoinsJournal journal;
+
+    public CoinsCache(Storage storage, int maximumSize, long offlineTtlMillis) {
+        this.entries = storage == Storage.PRIMITIVE ? new PrimitiveBalanceMap() : new ConcurrentBalanceMap();
+        this.pinnedPlayers = ConcurrentHashMap.newKeySet();
+        this.dirtyPlayers = ConcurrentHashMap.newKeySet();
+        this.storage = storage;
+        this.maximumSize = Math.max(1, maximumSize);
+        this.offlineTtlMillis = offlineTtlMillis;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    /**
+     * @return the cached balance or {@link #MISSING}
+     */
+    public long get(UUID uuid) {
+        long coins = this.entries.get(uuid);
+        if (coins == MISSING) {
+            this.misses.increment();
+            return MISSING;
+        }
+
+        this.hits.increment();
+        return coins;
+    }
+
+    public boolean contains(UUID uuid) {
+        return this.entries.contains(uuid);
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    public int getDirtyCount() {
+        return this.dirtyPlayers.size();
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    public double getHitRate() {
+        long hits = this.hits.sum();
+        long total = hits + this.misses.sum();
+        return total == 0 ? 1.0D : (double) hits / total;
+    }
+
+    void pin(UUID uuid) {
+        this.pinnedPlayers.add(uuid);
+    }
+
+    void unpin(UUID uuid) {
+        this.pinnedPlayers.remove(uuid);
+    }
+
+    /**
+     * @return the balance that is cached after the call
+     */
+    int putIfAbsent(UUID uuid, int coins) {
+        int cached = this.entries.putIfAbsent(uuid, coins);
+        this.evictOverflow(uuid);
+        return cached;
+    }
+
+    /**
+     * Sets the balance to {@code amount}, or adds {@code amount} to it, and records the resulting delta as unsaved.
+     *
+     * @return the change, or null if the balance is not cached
+     */
+    CoinsChange computeIfPresent(UUID uuid, boolean set, int amount) {
+        return this.toChange(uuid, this.entries.apply(uuid, false, 0, set, amount, this.journal));
+    }
+
+    CoinsChange compute(UUID uuid, int loadedCoins, boolean set, int amount) {
+        CoinsChange change = this.toChange(uuid, this.entries.apply(uuid, true, loadedCoins, set, amount, this.journal));
+        this.evictOverflow(uuid);
+        return change;
+    }
+
+    /**
+     * Journals every unsaved change before it is stored. Changes applied with {@link #applyPersisted} are not
+     * journaled.
+     */
+    void setJournal(CoinsJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Adds a change another server has already written to the database, without marking the player dirty.
+     *
+     * @return the change, or null if the balance is not cached
+     */
+    CoinsChange applyPersisted(UUID uuid, int delta) {
+        long packed = this.entries.applyPersisted(uuid, delta);
+        if (packed == MISSING) {
+            return null;
+        }
+        return new CoinsChange(BalanceMap.oldCoins(packed), BalanceMap.newCoins(packed));
+    }
+
+    List<UUID> getDirtyPlayers() {
+        return new ArrayList<>(this.dirtyPlayers);
+    }
+
+    /**
+     * Takes the unsaved delta of the player. Until {@link #completeDrain} is called the entry counts as in flight
+     * and will not be evicted.
+     */
+    int drain(UUID uuid) {
+        // unmark first: a change racing with the drain either lands in this delta or marks the player again
+        this.dirtyPlayers.remove(uuid);
+        return this.entries.drain(uuid);
+    }
+
+    /**
+     * Finishes a drain. If the write failed the delta is put back so the next flush retries it. A delta that is
+     * still pending afterwards marks the player dirty again, also one that a drain had to leave behind.
+     */
+    void completeDrain(UUID uuid, int delta, boolean written) {
+        if (this.entries.completeDrain(uuid, delta, written)) {
+            this.dirtyPlayers.add(uuid);
+        }
+    }
+
+    /**
+     * Removes the entry unless the player is pinned or the entry still has unsaved changes.
+     */
+    boolean evict(UUID uuid) {
+        if (this.pinnedPlayers.contains(uuid) || !this.entries.removeIfClean(uuid)) {
+            return false;
+        }
+
+        this.evictions.increment();
+        return true;
+    }
+
+    /**
+     * Drops expired offline entries, then the least recently used ones until the cache fits its maximum size.
+     */
+    void cleanUp() {
+        long now = System.currentTimeMillis();
+        List<Map.Entry<UUID, Long>> candidates = new ArrayList<>();
+
+        this.entries.forEachAccess((uuid, lastAccess) -> {
+            if (this.pinnedPlayers.contains(uuid)) return;
+
+            if (now - lastAccess > this.offlineTtlMillis) {
+                this.evict(uuid);
+            } else {
+                candidates.add(Map.entry(uuid, lastAccess));
+            }
+        });
+
+        int overflow = this.entries.size() - this.maximumSize;
+        if (overflow <= 0) return;
+
+        candidates.sort(Map.Entry.comparingByValue());
+        for (Map.Entry<UUID, Long> candidate : candidates) {
+            if (overflow <= 0) break;
+            if (this.evict(candidate.getKey())) {
+                overflow--;
+            }
+        }
+    }
+
+    /**
+     * Evicts sampled least recently used entries until the cache fits its maximum size again. Gives up after a few
+     * samples without a candidate, the next {@link #cleanUp} then scans the whole cache.
+     */
+    private void evictOverflow(UUID inserted) {
+        int attempts = 0;
+        while (this.entries.size() > this.maximumSize && attempts < EVICTION_ATTEMPTS) {
+            UUID[] victim = new UUID[1];
+            long[] oldestAccess = {Long.MAX_VALUE};
+            this.entries.sampleClean(EVICTION_SAMPLE_SIZE, (uuid, lastAccess) -> {
+                if (lastAccess < oldestAccess[0] && !uuid.equals(inserted) && !this.pinnedPlayers.contains(uuid)) {
+                    victim[0] = uuid;
+                    oldestAccess[0] = lastAccess;
+                }
+            });
+
+            if (victim[0] == null || !this.evict(victim[0])) {
+                attempts++;
+            }
+        }
+    }
+
+    private CoinsChange toChange(UUID uuid, long packed) {
+        if (packed == MISSING) {
+            return null;
+        }
+
+        int oldCoins = BalanceMap.oldCoins(packed);
+        int newCoins = BalanceMap.newCoins(packed);
+        if (oldCoins != newCoins) {
+            this.dirtyPlayers.add(uuid);
+        }
+        return new CoinsChange(oldCoins, newCoins);
+    }
+}
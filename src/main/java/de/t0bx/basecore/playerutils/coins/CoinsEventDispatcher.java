@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.coins;
+
+import de.t0bx.basecore.BaseAPI;
+import de.t0bx.basecore.event.PlayerCoinsChangeEvent;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects coin changes from any thread and fires one {@link PlayerCoinsChangeEvent} per player and tick on the
+ * main thread. The event carries the balance before the first change, the final balance and the net delta;
+ * changes that cancel each other out fire no event.
+ */
+class CoinsEventDispatcher {
+
+    private final ConcurrentHashMap<UUID, PendingChange> pendingChanges;
+    private final BukkitTask dispatchTask;
+
+    CoinsEventDispatcher() {
+        this.pendingChanges = new ConcurrentHashMap<>();
+        this.dispatchTask = Bukkit.getScheduler().runTaskTimer(BaseAPI.getApi(), this::dispatch, 1L, 1L);
+    }
+
+    void record(UUID uuid, CoinsChange change) {
+        this.pendingChanges.compute(uuid, (key, pending) -> {
+            if (pending == null) {
+                return new PendingChange(change.getOldCoins(), change.getDelta());
+            }
+            pending.delta += change.getDelta();
+            pending.count++;
+            return pending;
+        });
+    }
+
+    private void dispatch() {
+        if (this.pendingChanges.isEmpty()) return;
+
+        for (UUID uuid : this.pendingChanges.keySet()) {
+            PendingChange pending = this.pendingChanges.remove(uuid);
+            if (pending == null || pending.delta == 0) continue;
+
+            Player player = Bukkit.getPlayer(uuid);
+            if (player != null && player.isOnline()) {
+                Bukkit.getPluginManager().callEvent(new PlayerCoinsChangeEvent(player, pending.oldCoins + pending.delta,
+                        pending.oldCoins, pending.delta, pending.count));
+            }
+        }
+    }
+
+    void shutdown() {
+        this.dispatchTask.cancel();
+        if (Bukkit.isPrimaryThread()) {
+            this.dispatch();
+        }
+        this.pendingChanges.clear();
+    }
+
+    private static final class PendingChange {
+
+        private final int oldCoins;
+
+        // guarded by the ConcurrentHashMap bin lock
+        private int delta;
+        private int count;
+
+        private PendingChange(int oldCoins, int delta) {
+            this.oldCoins = oldCoins;
+            this.delta = delta;
+            this.count = 1;
+        }
+    }
+}
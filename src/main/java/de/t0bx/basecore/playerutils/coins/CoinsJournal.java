@@ -0,0 +1,509 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+package de.t0bx.basecore.playerutils.coins;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * Memory-mapped write-ahead journal of coin changes that are not yet in MySQL.
+ * <p>
+ * Every change is appended as a MUTATION record before it becomes visible in the cache. A write to MySQL is
+ * announced with PREPARE records under a random batch id and resolved with CONFIRM or ABORT. The MySQL transaction
+ * also inserts the batch id into {@code coin_journal_batches}. After a crash, a batch without a resolution is
+ * therefore looked up in the database, and every delta is replayed exactly once.
+ * <p>
+ * Appends run concurrently under the read lock, each into its own reserved slot, and never wait for I/O or allocate:
+ * records are encoded into a scratch buffer of the calling thread and copied into the mapping. If the
+ * journal is full the append fails and the change is rejected. Compaction runs on the journal task. It writes the
+ * outstanding deltas to a new file without holding the lock and only takes the write lock to snapshot the state and
+ * to move the records appended meanwhile over. A SEALED record marks the new file as complete, so a crash before it
+ * replaced the old one is finished on the next start.
+ */
+class CoinsJournal {
+
+    private static final int RECORD_SIZE = 40;
+
+    private static final byte MUTATION = 1;
+    private static final byte PREPARE = 2;
+    private static final byte CONFIRM = 3;
+    private static final byte ABORT = 4;
+    private static final byte SEALED = 5;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final Path path;
+    private final Logger logger;
+    private final ReadWriteLock lock;
+    private final AtomicInteger position;
+
+    // held for a whole compaction, so close() never runs into one that is writing the new file
+    private final Object compactionLock;
+    private volatile boolean compactionRequested;
+
+    // journaled mutations minus prepared deltas, per player; zero entries are dropped by the compaction
+    private final ConcurrentHashMap<UUID, LongAdder> outstanding;
+    private final ConcurrentHashMap<Long, Map<UUID, Integer>> preparedBatches;
+
+    // recovered deltas that belong to no cache entry and still have to be written
+    private final ConcurrentHashMap<UUID, Integer> backlog;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private volatile int capacity;
+
+    // batches found in the file that were neither confirmed nor aborted, until recover() resolves them
+    private Map<Long, Map<UUID, Integer>> unresolvedBatches;
+    private Map<UUID, Long> recoveredMutations;
+
+    CoinsJournal(Path path, int capacity, Logger logger) throws IOException {
+        this.path = path;
+        this.logger = logger;
+        this.lock = new ReentrantReadWriteLock();
+        this.position = new AtomicInteger();
+        this.compactionLock = new Object();
+        this.outstanding = new ConcurrentHashMap<>();
+        this.preparedBatches = new ConcurrentHashMap<>();
+        this.backlog = new ConcurrentHashMap<>();
+
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        this.finishInterruptedCompaction();
+        long existingSize = Files.exists(path) ? Files.size(path) : 0L;
+        this.capacity = (int) Math.max(capacity - capacity % RECORD_SIZE, existingSize - existingSize % RECORD_SIZE);
+        this.map();
+        this.scan();
+    }
+
+    /**
+     * Batch ids that were prepared before the last shutdown but never resolved. The caller checks which of them
+     * were committed to MySQL and passes those to {@link #recover}.
+     */
+    Set<Long> getUnresolvedBatches() {
+        return this.unresolvedBatches.keySet();
+    }
+
+    /**
+     * Resolves the state read from disk and compacts the journal to it.
+     *
+     * @return the number of players with recovered deltas
+     */
+    int recover(Set<Long> committedBatches) throws IOException {
+        Map<UUID, Long> net = new HashMap<>(this.recoveredMutations);
+        this.unresolvedBatches.forEach((batchId, deltas) -> {
+            if (committedBatches.contains(batchId)) {
+                deltas.forEach((uuid, delta) -> net.merge(uuid, (long) -delta, Long::sum));
+            }
+        });
+
+        this.lock.writeLock().lock();
+        try {
+            net.forEach((uuid, delta) -> {
+                if (delta == 0L) return;
+                this.outstandingOf(uuid).add(delta);
+                this.backlog.put(uuid, (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, delta)));
+            });
+            this.unresolvedBatches = Map.of();
+            this.recoveredMutations = Map.of();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+        this.compact();
+        return this.backlog.size();
+    }
+
+    /**
+     * @throws IllegalStateException if the journal is full; the change must then not be applied
+     */
+    void appendMutation(UUID uuid, long delta) {
+        if (delta == 0L) return;
+        byte[] record = encode(MUTATION, 0L, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), delta);
+
+        this.lock.readLock().lock();
+        try {
+            this.buffer.put(this.reserve(RECORD_SIZE, true), record, 0, RECORD_SIZE);
+            this.outstandingOf(uuid).add(delta);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Journals all deltas of a batch with one reservation, so a compaction never sees half of a batch.
+     *
+     * @throws IllegalStateException if the journal is full; the batch must then not be written
+     */
+    void prepare(long batchId, Map<UUID, Integer> deltas) {
+        ByteBuffer records = ByteBuffer.allocate(deltas.size() * RECORD_SIZE);
+        CRC32C crc = new CRC32C();
+        deltas.forEach((uuid, delta) -> encode(records, crc, PREPARE, batchId, uuid.getMostSignificantBits(),
+                uuid.getLeastSignificantBits(), delta));
+
+        this.lock.readLock().lock();
+        try {
+            this.buffer.put(this.reserve(records.capacity(), true), records.array());
+            deltas.forEach((uuid, delta) -> this.outstandingOf(uuid).add(-delta));
+            this.preparedBatches.put(batchId, deltas);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Resolutions are applied even if the journal is full. Without the record the batch is looked up in MySQL
+     * after a crash, which gives the same answer.
+     */
+    void confirm(long batchId) {
+        byte[] record = encode(CONFIRM, batchId, 0L, 0L, 0L);
+
+        this.lock.readLock().lock();
+        try {
+            int offset = this.reserve(RECORD_SIZE, false);
+            if (offset >= 0) {
+                this.buffer.put(offset, record, 0, RECORD_SIZE);
+            }
+            this.preparedBatches.remove(batchId);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    void abort(long batchId) {
+        byte[] record = encode(ABORT, batchId, 0L, 0L, 0L);
+
+        this.lock.readLock().lock();
+        try {
+            int offset = this.reserve(RECORD_SIZE, false);
+            if (offset >= 0) {
+                this.buffer.put(offset, record, 0, RECORD_SIZE);
+            }
+            Map<UUID, Integer> deltas = this.preparedBatches.remove(batchId);
+            if (deltas != null) {
+                deltas.forEach((uuid, delta) -> this.outstandingOf(uuid).add(delta));
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Takes the recovered deltas that still have to be written. Hand them back with {@link #restoreBacklog} if
+     * the write fails.
+     */
+    Map<UUID, Integer> takeBacklog() {
+        Map<UUID, Integer> taken = new HashMap<>();
+        for (UUID uuid : this.backlog.keySet()) {
+            Integer delta = this.backlog.remove(uuid);
+            if (delta != null) {
+                taken.put(uuid, delta);
+            }
+        }
+        return taken;
+    }
+
+    void restoreBacklog(Map<UUID, Integer> deltas) {
+        deltas.forEach((uuid, delta) -> this.backlog.merge(uuid, delta, Integer::sum));
+    }
+
+    int getBacklogSize() {
+        return this.backlog.size();
+    }
+
+    int getUsedBytes() {
+        return Math.min(this.position.get(), this.capacity);
+    }
+
+    int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Forces the mapped pages to disk. Appends only reach the page cache, which survives a crash of the server
+     * process but not of the machine.
+     */
+    void sync() {
+        this.lock.readLock().lock();
+        try {
+            this.buffer.force();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Compacts the journal once it is more than half full or an append found it full. Called by the journal task.
+     */
+    void maybeCompact() {
+        if (!this.compactionRequested && this.position.get() <= this.capacity / 2) return;
+
+        this.compactionRequested = false;
+        try {
+            this.compact();
+        } catch (IOException exception) {
+            this.logger.warning("Could not compact coin journal: " + exception.getMessage());
+        }
+    }
+
+    void close() {
+        synchronized (this.compactionLock) {
+            try {
+                this.compact();
+                this.buffer.force();
+                this.channel.close();
+            } catch (IOException exception) {
+                this.logger.warning("Could not close coin journal: " + exception.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reserves {@code length} bytes for the caller, which holds the read lock. Never blocks on I/O; the read lock is
+     * only contended while a compaction takes its snapshot or swaps the files.
+     *
+     * @param required whether a full journal fails the append; otherwise -1 is returned and the record is skipped
+     */
+    private int reserve(int length, boolean required) {
+        int offset;
+        do {
+            offset = this.position.get();
+            if (offset > this.capacity - length) {
+                this.compactionRequested = true;
+                if (required) {
+                    throw new IllegalStateException("Coin journal is full, the change was rejected");
+                }
+                return -1;
+            }
+        } while (!this.position.compareAndSet(offset, offset + length));
+        return offset;
+    }
+
+    private LongAdder outstandingOf(UUID uuid) {
+        LongAdder delta = this.outstanding.get(uuid);
+        return delta != null ? delta : this.outstanding.computeIfAbsent(uuid, key -> new LongAdder());
+    }
+
+    /**
+     * Writes the outstanding deltas and prepared batches to a new file and switches over to it. The new file is
+     * written and forced without the lock; the write lock is only held to snapshot the state and, at the end, to
+     * copy the records appended since the snapshot and swap the mapping.
+     */
+    private void compact() throws IOException {
+        synchronized (this.compactionLock) {
+            int snapshotEnd;
+            Map<UUID, Long> mutations;
+            Map<Long, Map<UUID, Integer>> prepared;
+            this.lock.writeLock().lock();
+            try {
+                snapshotEnd = this.position.get();
+                // appends hold the read lock, so no delta changes while zero entries are dropped
+                this.outstanding.values().removeIf(delta -> delta.sum() == 0L);
+                mutations = new HashMap<>();
+                this.outstanding.forEach((uuid, delta) -> mutations.put(uuid, delta.sum()));
+                prepared = new HashMap<>(this.preparedBatches);
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+
+            prepared.values().forEach(deltas -> deltas.forEach((uuid, delta) -> mutations.merge(uuid, (long) delta, Long::sum)));
+            mutations.values().removeIf(delta -> delta == 0L);
+
+            int oldCapacity = this.capacity;
+            int records = mutations.size() + prepared.values().stream().mapToInt(Map::size).sum();
+            long required = (long) records * RECORD_SIZE;
+            // room for the compacted records twice over, and for everything that can be appended meanwhile
+            long capacity = oldCapacity;
+            while (capacity < required * 2 || capacity < required + (oldCapacity - snapshotEnd) + RECORD_SIZE) {
+                capacity *= 2;
+            }
+            if (capacity > Integer.MAX_VALUE - Integer.MAX_VALUE % RECORD_SIZE) {
+                throw new IOException("Coin journal cannot grow beyond " + oldCapacity + " bytes");
+            }
+
+            Path temporary = this.temporaryPath();
+            FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            MappedByteBuffer buffer;
+            try {
+                ByteBuffer content = ByteBuffer.allocate((int) required);
+                CRC32C crc = new CRC32C();
+                mutations.forEach((uuid, delta) -> encode(content, crc, MUTATION, 0L, uuid.getMostSignificantBits(),
+                        uuid.getLeastSignificantBits(), delta));
+                prepared.forEach((batchId, deltas) -> deltas.forEach((uuid, delta) -> encode(content, crc, PREPARE,
+                        batchId, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), delta)));
+                content.flip();
+                while (content.hasRemaining()) {
+                    channel.write(content);
+                }
+                channel.force(true);
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0L, capacity);
+            } catch (IOException | RuntimeException exception) {
+                channel.close();
+                Files.deleteIfExists(temporary);
+                throw exception;
+            }
+
+            FileChannel oldChannel;
+            this.lock.writeLock().lock();
+            try {
+                int tail = this.position.get() - snapshotEnd;
+                buffer.put((int) required, this.buffer, snapshotEnd, tail);
+                buffer.put((int) required + tail, encode(SEALED, 0L, 0L, 0L, 0L), 0, RECORD_SIZE);
+
+                oldChannel = this.channel;
+                this.channel = channel;
+                this.buffer = buffer;
+                this.capacity = (int) capacity;
+                this.position.set((int) required + tail + RECORD_SIZE);
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+
+            // the copied tail has to be on disk before the new file replaces the old one
+            this.sync();
+            Files.move(temporary, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            oldChannel.close();
+        }
+    }
+
+    /**
+     * Finishes a compaction that swapped to the new file but crashed before it replaced the old one, or discards
+     * the new file if it was not complete yet.
+     */
+    private void finishInterruptedCompaction() throws IOException {
+        Path temporary = this.temporaryPath();
+        if (!Files.exists(temporary)) return;
+
+        byte[] content = Files.readAllBytes(temporary);
+        CRC32C crc = new CRC32C();
+        for (int offset = 0; offset <= content.length - RECORD_SIZE; offset += RECORD_SIZE) {
+            if (content[offset + 4] == SEALED && ByteBuffer.wrap(content).getInt(offset) == checksum(content, offset, crc)) {
+                Files.move(temporary, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                this.logger.info("Finished an interrupted compaction of the coin journal");
+                return;
+            }
+        }
+        Files.delete(temporary);
+    }
+
+    private Path temporaryPath() {
+        return this.path.resolveSibling(this.path.getFileName() + ".tmp");
+    }
+
+    private void map() throws IOException {
+        this.channel = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0L, this.capacity);
+    }
+
+    private void scan() {
+        Map<UUID, Long> mutations = new HashMap<>();
+        Map<Long, Map<UUID, Integer>> prepared = new HashMap<>();
+        Set<Long> resolved = new HashSet<>();
+        int end = 0;
+        int corrupt = 0;
+
+        byte[] record = new byte[RECORD_SIZE];
+        CRC32C crc = new CRC32C();
+        for (int offset = 0; offset <= this.capacity - RECORD_SIZE; offset += RECORD_SIZE) {
+            this.buffer.get(offset, record);
+            ByteBuffer view = ByteBuffer.wrap(record);
+            byte type = view.get(4);
+            if (type == 0) continue;
+
+            if (view.getInt(0) != checksum(record, 0, crc)) {
+                corrupt++;
+                continue;
+            }
+            end = offset + RECORD_SIZE;
+
+            long batchId = view.getLong(8);
+            UUID uuid = new UUID(view.getLong(16), view.getLong(24));
+            long delta = view.getLong(32);
+            switch (type) {
+                case MUTATION -> mutations.merge(uuid, delta, Long::sum);
+                case PREPARE -> prepared.computeIfAbsent(batchId, key -> new HashMap<>()).merge(uuid, (int) delta, Integer::sum);
+                case CONFIRM -> {
+                    resolved.add(batchId);
+                    Map<UUID, Integer> deltas = prepared.get(batchId);
+                    if (deltas != null) {
+                        deltas.forEach((key, value) -> mutations.merge(key, (long) -value, Long::sum));
+                    }
+                }
+                case ABORT -> resolved.add(batchId);
+                case SEALED -> {
+                }
+                default -> corrupt++;
+            }
+        }
+
+        if (corrupt > 0) {
+            this.logger.warning("Skipped " + corrupt + " damaged record(s) in the coin journal");
+        }
+        prepared.keySet().removeAll(resolved);
+
+        this.recoveredMutations = mutations;
+        this.unresolvedBatches = prepared;
+        this.position.set(end);
+    }
+
+    /**
+     * Encodes one record into the scratch buffer of the calling thread.
+     *
+     * @return the scratch array, valid until the thread encodes the next record
+     */
+    private static byte[] encode(byte type, long batchId, long mostSigBits, long leastSigBits, long delta) {
+        Scratch scratch = SCRATCH.get();
+        encode(scratch.record.clear(), scratch.crc, type, batchId, mostSigBits, leastSigBits, delta);
+        return scratch.record.array();
+    }
+
+    private static void encode(ByteBuffer target, CRC32C crc, byte type, long batchId, long mostSigBits,
+                               long leastSigBits, long delta) {
+        int start = target.position();
+        target.putInt(0);
+        target.put(type);
+        target.put((byte) 0);
+        target.putShort((short) 0);
+        target.putLong(batchId);
+        target.putLong(mostSigBits);
+        target.putLong(leastSigBits);
+        target.putLong(delta);
+        target.putInt(start, checksum(target.array(), start, crc));
+    }
+
+    private static int checksum(byte[] records, int offset, CRC32C crc) {
+        crc.reset();
+        crc.update(records, offset + 4, RECORD_SIZE - 4);
+        return (int) crc.getValue();
+    }
+
+    private static final class Scratch {
+
+        private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        private final CRC32C crc = new CRC32C();
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+package de.t0bx.basecore.playerutils.coins;
+
+import de.t0bx.basecore.BaseAPI;
+import de.t0bx.basecore.database.BinaryUUID;
+import de.t0bx.basecore.database.IMySQLManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+
+/**
+ * In-memory coin leaderboard. It is seeded once from {@code player_coins} and then kept up to date by the
+ * {@link BalanceListener} of the coins provider, so {@link #top} and {@link #rankOf} never query MySQL.
+ * <p>
+ * With a capacity only the richest players are tracked. Every untracked player is known to have at most
+ * {@code floor} coins, so the ranks of tracked players above the floor are exact; players at or below it are
+ * reported as unranked. Players that drop to the floor leave the index; once it holds fewer than {@code capacity}
+ * players it is seeded again, at most every {@value #RESEED_INTERVAL_MILLIS} ms.
+ */
+public class CoinsLeaderboard {
+
+    private static final int SEED_FETCH_SIZE = 1000;
+    private static final long RESEED_INTERVAL_MILLIS = 30_000L;
+
+    private final IMySQLManager mySQLManager;
+    private final int capacity;
+
+    private final RankedSkipList ranking;
+    private final Map<UUID, Long> scores;
+    private final ReadWriteLock lock;
+
+    private long floor;
+
+    // non-null while a seed query runs, collects the balances that change meanwhile
+    private Map<UUID, Long> updatesWhileSeeding;
+    private long lastSeedStartedAt;
+
+    /**
+     * @param capacity maximum number of tracked players, 0 or less to track every player
+     */
+    public CoinsLeaderboard(IMySQLManager mySQLManager, int capacity) {
+        this.mySQLManager = mySQLManager;
+        this.capacity = capacity;
+        this.ranking = new RankedSkipList();
+        this.scores = new HashMap<>();
+        this.lock = new ReentrantReadWriteLock();
+        this.floor = Long.MIN_VALUE;
+    }
+
+    /**
+     * Streams the richest players into the index. Balances that changed while seeding are kept.
+     *
+     * @return the number of rows read, or 0 if a seed is already running
+     */
+    public CompletableFuture<Long> seed() {
+        this.lock.writeLock().lock();
+        try {
+            if (this.updatesWhileSeeding != null) {
+                return CompletableFuture.completedFuture(0L);
+            }
+            this.updatesWhileSeeding = new HashMap<>();
+            this.lastSeedStartedAt = System.currentTimeMillis();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+
+        String sql = this.capacity > 0
+                ? "SELECT uuid, coins FROM player_coins ORDER BY coins DESC LIMIT " + (this.capacity + 1)
+                : "SELECT uuid, coins FROM player_coins";
+
+        List<Map.Entry<UUID, Long>> rows = new ArrayList<>();
+        return this.mySQLManager.forEachRowAsync(sql, SEED_FETCH_SIZE,
+                resultSet -> Map.entry(BinaryUUID.fromBytes(resultSet.getBytes("uuid")), resultSet.getLong("coins")),
+                rows::add).whenComplete((count, throwable) -> {
+            this.lock.writeLock().lock();
+            try {
+                Map<UUID, Long> updates = this.updatesWhileSeeding;
+                this.updatesWhileSeeding = null;
+                if (throwable == null) {
+                    this.merge(rows, updates);
+                }
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+
+            if (throwable != null) {
+                BaseAPI.getApi().getLogger().log(Level.SEVERE, "Could not seed coin leaderboard", throwable);
+            }
+        });
+    }
+
+    public void update(UUID uuid, long coins) {
+        boolean reseed;
+        this.lock.writeLock().lock();
+        try {
+            if (this.updatesWhileSeeding != null) {
+                this.updatesWhileSeeding.put(uuid, coins);
+            }
+
+            Long previous = this.scores.get(uuid);
+            if (previous != null) {
+                if (previous == coins) return;
+                this.ranking.remove(uuid, previous);
+                this.scores.remove(uuid);
+            }
+            if (coins > this.floor) {
+                this.put(uuid, coins);
+            }
+
+            // only a floor above MIN_VALUE can have dropped players, otherwise the table simply has fewer rows
+            reseed = this.capacity > 0 && this.ranking.size() < this.capacity && this.floor != Long.MIN_VALUE
+                    && this.updatesWhileSeeding == null
+                    && System.currentTimeMillis() - this.lastSeedStartedAt >= RESEED_INTERVAL_MILLIS;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+
+        if (reseed) {
+            this.seed();
+        }
+    }
+
+    /**
+     * @return up to {@code limit} entries starting at the 1-based rank {@code from}
+     */
+    public List<LeaderboardEntry> range(int from, int limit) {
+        this.lock.readLock().lock();
+        try {
+            List<LeaderboardEntry> entries = new ArrayList<>(Math.max(0, Math.min(limit, this.ranking.size())));
+            RankedSkipList.Node node = this.ranking.nodeAt(from);
+            for (int rank = from; node != null && entries.size() < limit && node.coins > this.floor; rank++) {
+                entries.add(new LeaderboardEntry(rank, node.uuid, node.coins));
+                node = node.next();
+            }
+            return entries;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public List<LeaderboardEntry> top(int limit) {
+        return this.range(1, limit);
+    }
+
+    /**
+     * @return the 1-based rank or -1 if the player is not ranked
+     */
+    public int rankOf(UUID uuid) {
+        this.lock.readLock().lock();
+        try {
+            Long coins = this.scores.get(uuid);
+            if (coins == null || coins <= this.floor) {
+                return -1;
+            }
+            return this.ranking.rankOf(uuid, coins);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.ranking.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Takes the floor of the seed and adds the seeded players the index does not track yet. Tracked balances and
+     * balances that changed during the query are newer than the rows and win. Callers hold the write lock.
+     */
+    private void merge(List<Map.Entry<UUID, Long>> rows, Map<UUID, Long> updates) {
+        if (this.capacity > 0) {
+            this.floor = rows.size() > this.capacity ? rows.get(this.capacity).getValue() : Long.MIN_VALUE;
+        }
+
+        int seeded = this.capacity > 0 ? Math.min(rows.size(), this.capacity) : rows.size();
+        for (Map.Entry<UUID, Long> row : rows.subList(0, seeded)) {
+            if (this.scores.containsKey(row.getKey()) || updates.containsKey(row.getKey())) continue;
+            if (row.getValue() > this.floor) {
+                this.put(row.getKey(), row.getValue());
+            }
+        }
+        updates.forEach((uuid, coins) -> {
+            if (!this.scores.containsKey(uuid) && coins > this.floor) {
+                this.put(uuid, coins);
+            }
+        });
+    }
+
+    // callers hold the write lock
+    private void put(UUID uuid, long coins) {
+        this.ranking.insert(uuid, coins);
+        this.scores.put(uuid, coins);
+
+        while (this.capacity > 0 && this.ranking.size() > this.capacity) {
+            RankedSkipList.Node last = this.ranking.nodeAt(this.ranking.size());
+            this.ranking.remove(last.uuid, last.coins);
+            this.scores.remove(last.uuid);
+            this.floor = Math.max(this.floor, last.coins);
+        }
+    }
+}
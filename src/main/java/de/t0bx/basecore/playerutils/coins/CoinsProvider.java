@@ -11,150 +11,570 @@
 package de.t0bx.basecore.playerutils.coins;
 
 import de.t0bx.basecore.BaseAPI;
+import de.t0bx.basecore.database.BinaryUUID;
 import de.t0bx.basecore.database.IMySQLManager;
+import de.t0bx.basecore.database.SQLErrorClassifier;
 import de.t0bx.basecore.event.PlayerCoinsChangeEvent;
+import lombok.Getter;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 
+import java.io.File;
+import java.io.IOException;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.logging.Level;
 
 public class CoinsProvider implements ICoinsProvider {
 
-    private final ConcurrentHashMap<UUID, Integer> coinsCache;
+    private static final String SELECT_COINS_SQL = "SELECT coins FROM player_coins WHERE uuid = ?";
+    private static final String INSERT_IGNORE_SQL = "INSERT IGNORE INTO player_coins(uuid, coins) VALUES(?, 0)";
+    private static final String UPSERT_DELTA_SQL = "INSERT INTO player_coins(uuid, coins) VALUES(?, ?) ON DUPLICATE KEY UPDATE coins = coins + VALUES(coins)";
+    private static final String INSERT_BATCH_SQL = "INSERT INTO coin_journal_batches(batch_id) VALUES(?)";
+    private static final String SELECT_BATCH_SQL = "SELECT batch_id FROM coin_journal_batches WHERE batch_id = ?";
+    private static final String PRUNE_BATCHES_SQL = "DELETE FROM coin_journal_batches WHERE created_at < NOW() - INTERVAL 7 DAY";
+
+    private static final int PRELOAD_CHUNK_SIZE = 512;
+    private static final int PRELOAD_MINIMUM_BUCKET = 8;
+
+    private static final long CLEANUP_INTERVAL_TICKS = 20L * 30L;
+    private static final long JOURNAL_SYNC_INTERVAL_TICKS = 20L;
+    private static final long BATCH_LOOKUP_RETRY_TICKS = 20L * 5L;
+
+    @Getter
+    private final CoinsCache coinsCache;
+
+    private final ConcurrentHashMap<UUID, CompletableFuture<Integer>> loadingPlayers;
+
+    private final List<BalanceListener> balanceListeners;
 
     private final IMySQLManager mySQLManager;
 
+    private final boolean writeBehind;
+    private final int flushThreshold;
+    private final AtomicBoolean thresholdFlushScheduled;
+    private final BukkitTask flushTask;
+    private final BukkitTask cleanupTask;
+
+    private final CoinsEventDispatcher eventDispatcher;
+
+    private final CoinsJournal journal;
+    private final BukkitTask journalTask;
+
+    private volatile boolean shuttingDown;
+
     public CoinsProvider() {
-        this.coinsCache = new ConcurrentHashMap<>();
+        CoinsCache.Storage storage = "boxed".equalsIgnoreCase(BaseAPI.getApi().getDatabaseFile().getCoinsCacheStorage())
+                ? CoinsCache.Storage.BOXED
+                : CoinsCache.Storage.PRIMITIVE;
+        this.coinsCache = new CoinsCache(storage, BaseAPI.getApi().getDatabaseFile().getCoinsCacheMaximumSize(),
+                BaseAPI.getApi().getDatabaseFile().getCoinsCacheOfflineTtlSeconds() * 1000L);
+        this.loadingPlayers = new ConcurrentHashMap<>();
+        this.balanceListeners = new CopyOnWriteArrayList<>();
         this.mySQLManager = BaseAPI.getApi().getMySQLManager();
+
+        this.writeBehind = BaseAPI.getApi().getDatabaseFile().isCoinsWriteBehind();
+        this.flushThreshold = Math.max(1, BaseAPI.getApi().getDatabaseFile().getCoinsFlushThreshold());
+        this.thresholdFlushScheduled = new AtomicBoolean();
+
+        if (this.writeBehind) {
+            long interval = Math.max(1L, BaseAPI.getApi().getDatabaseFile().getCoinsFlushIntervalTicks());
+            this.flushTask = Bukkit.getScheduler().runTaskTimerAsynchronously(BaseAPI.getApi(), this::flush, interval, interval);
+        } else {
+            this.flushTask = null;
+        }
+        this.cleanupTask = Bukkit.getScheduler().runTaskTimerAsynchronously(BaseAPI.getApi(), this.coinsCache::cleanUp,
+                CLEANUP_INTERVAL_TICKS, CLEANUP_INTERVAL_TICKS);
+
+        this.eventDispatcher = BaseAPI.getApi().getDatabaseFile().isCoinsCoalesceEvents() ? new CoinsEventDispatcher() : null;
+
+        if (BaseAPI.getApi().getDatabaseFile().isCoinsJournalEnabled()) {
+            this.journal = this.openJournal();
+            this.coinsCache.setJournal(this.journal);
+            this.journalTask = Bukkit.getScheduler().runTaskTimerAsynchronously(BaseAPI.getApi(), () -> {
+                this.journal.sync();
+                this.journal.maybeCompact();
+            }, JOURNAL_SYNC_INTERVAL_TICKS, JOURNAL_SYNC_INTERVAL_TICKS);
+            if (this.journal.getBacklogSize() > 0) {
+                this.flush();
+            }
+        } else {
+            this.journal = null;
+            this.journalTask = null;
+        }
+    }
+
+    /**
+     * Opens the journal and recovers the changes that did not reach MySQL before the last shutdown. A batch that was
+     * in flight counts as written if its id is in {@code coin_journal_batches}.
+     */
+    private CoinsJournal openJournal() {
+        File file = new File(BaseAPI.getApi().getDataFolder(), "coins.journal");
+        int capacity = Math.max(1, BaseAPI.getApi().getDatabaseFile().getCoinsJournalSizeMb()) * 1024 * 1024;
+        try {
+            CoinsJournal journal = new CoinsJournal(file.toPath(), capacity, BaseAPI.getApi().getLogger());
+
+            Set<Long> committedBatches = new HashSet<>();
+            for (long batchId : journal.getUnresolvedBatches()) {
+                if (!this.mySQLManager.query(SELECT_BATCH_SQL, resultSet -> batchId, batchId).isEmpty()) {
+                    committedBatches.add(batchId);
+                }
+            }
+
+            int recovered = journal.recover(committedBatches);
+            if (recovered > 0) {
+                BaseAPI.getApi().getLogger().info("Recovered unsaved coins of " + recovered + " player(s) from the journal");
+            }
+            this.mySQLManager.updateAsync(PRUNE_BATCHES_SQL);
+            return journal;
+        } catch (IOException | SQLException exception) {
+            throw new RuntimeException("Could not open coin journal " + file, exception);
+        }
     }
 
     @Override
     public int getCoins(UUID uuid) {
-        if (this.coinsCache.containsKey(uuid)) {
-            return this.coinsCache.get(uuid);
+        long coins = this.coinsCache.get(uuid);
+        if (coins != CoinsCache.MISSING) {
+            return (int) coins;
         }
 
-        String sql = "SELECT coins FROM player_coins WHERE uuid = ?";
-
-        this.mySQLManager.queryAsync(sql, resultSet -> {
-            try {
-                return resultSet.getInt("coins");
-            } catch (SQLException exception) {
-                BaseAPI.getApi().getLogger().severe(exception.getMessage());
-                return 0;
-            }
-        }, uuid.toString()).thenApply(coins -> {
-           if (!coins.isEmpty()) {
-               return coins.getFirst();
-           } else {
-               return 0;
-           }
-        });
+        // warm the cache so the next call can answer synchronously; the miss is already counted
+        this.queryCoins(uuid, false);
         return 0;
     }
 
     @Override
-    public void addCoins(UUID uuid, int amount) {
-        int currentCoins = this.getCoins(uuid);
-        int newCoins = currentCoins + amount;
-        this.coinsCache.put(uuid, newCoins);
+    public CompletableFuture<Integer> getCoinsAsync(UUID uuid) {
+        return this.loadCoins(uuid);
+    }
 
-        this.savePlayer(uuid);
+    @Override
+    public void addCoins(UUID uuid, int amount) {
+        this.mutate(uuid, false, amount);
+    }
 
-        Player player = Bukkit.getPlayer(uuid);
-        if (player != null && player.isOnline()) {
-            PlayerCoinsChangeEvent event = new PlayerCoinsChangeEvent(player, newCoins, currentCoins, amount);
-            Bukkit.getPluginManager().callEvent(event);
-        }
+    @Override
+    public CompletableFuture<Integer> addCoinsAsync(UUID uuid, int amount) {
+        return this.mutateAsync(uuid, false, amount);
     }
 
     @Override
     public void removeCoins(UUID uuid, int amount) {
-        int currentCoins = this.getCoins(uuid);
-        int newCoins = currentCoins - amount;
-        this.coinsCache.put(uuid, newCoins);
-
-        this.savePlayer(uuid);
+        this.mutate(uuid, false, Math.negateExact(amount));
+    }
 
-        Player player = Bukkit.getPlayer(uuid);
-        if (player != null && player.isOnline()) {
-            PlayerCoinsChangeEvent event = new PlayerCoinsChangeEvent(player, newCoins, currentCoins, amount);
-            Bukkit.getPluginManager().callEvent(event);
-        }
+    @Override
+    public CompletableFuture<Integer> removeCoinsAsync(UUID uuid, int amount) {
+        return this.mutateAsync(uuid, false, Math.negateExact(amount));
     }
 
     @Override
     public void setCoins(UUID uuid, int amount) {
-        int currentCoins = this.getCoins(uuid);
-        this.coinsCache.put(uuid, amount);
+        this.mutate(uuid, true, amount);
+    }
 
-        this.savePlayer(uuid);
-        Player player = Bukkit.getPlayer(uuid);
-        if (player != null && player.isOnline()) {
-            PlayerCoinsChangeEvent event = new PlayerCoinsChangeEvent(player, amount, currentCoins, amount);
-            Bukkit.getPluginManager().callEvent(event);
+    @Override
+    public CompletableFuture<Integer> setCoinsAsync(UUID uuid, int amount) {
+        return this.mutateAsync(uuid, true, amount);
+    }
+
+    private void mutate(UUID uuid, boolean set, int amount) {
+        CoinsChange change = this.coinsCache.computeIfPresent(uuid, set, amount);
+        if (change == null) {
+            this.mutateAsync(uuid, set, amount);
+            return;
+        }
+
+        this.onChange(uuid, change);
+    }
+
+    private CompletableFuture<Integer> mutateAsync(UUID uuid, boolean set, int amount) {
+        CoinsChange cachedChange = this.coinsCache.computeIfPresent(uuid, set, amount);
+        if (cachedChange != null) {
+            this.onChange(uuid, cachedChange);
+            return CompletableFuture.completedFuture(cachedChange.getNewCoins());
+        }
+
+        CompletableFuture<Integer> future = this.loadCoins(uuid).thenApply(loadedCoins -> {
+            CoinsChange change = this.coinsCache.compute(uuid, loadedCoins, set, amount);
+            this.onChange(uuid, change);
+            return change.getNewCoins();
+        });
+        future.exceptionally(throwable -> {
+            BaseAPI.getApi().getLogger().log(Level.SEVERE, "Could not change coins of " + uuid, throwable);
+            return null;
+        });
+        return future;
+    }
+
+    private CompletableFuture<Integer> loadCoins(UUID uuid) {
+        return this.loadCoins(uuid, false);
+    }
+
+    /**
+     * Loads the balance of the player into the cache. Concurrent misses for the same player share one query.
+     * With {@code createRow} the row is inserted if missing, on the same connection and in the same task as the
+     * select.
+     */
+    private CompletableFuture<Integer> loadCoins(UUID uuid, boolean createRow) {
+        long cached = this.coinsCache.get(uuid);
+        if (cached != CoinsCache.MISSING) {
+            return CompletableFuture.completedFuture((int) cached);
         }
+        return this.queryCoins(uuid, createRow);
     }
 
-    public void loadPlayer(UUID uuid) {
-        if (this.coinsCache.containsKey(uuid)) return;
+    /**
+     * Queries the balance of a player that was not cached, without another cache lookup.
+     */
+    private CompletableFuture<Integer> queryCoins(UUID uuid, boolean createRow) {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        CompletableFuture<Integer> running = this.loadingPlayers.putIfAbsent(uuid, future);
+        if (running != null) {
+            return running;
+        }
+
+        byte[] id = BinaryUUID.toBytes(uuid);
+        CompletableFuture<List<Integer>> query = createRow
+                ? this.mySQLManager.withConnectionAsync(context -> {
+                    context.update(INSERT_IGNORE_SQL, id);
+                    return context.query(SELECT_COINS_SQL, CoinsProvider::readCoins, id);
+                })
+                : this.mySQLManager.queryAsync(SELECT_COINS_SQL, CoinsProvider::readCoins, id);
 
-        this.doesPlayerExist(uuid).thenAccept(playerExist -> {
-           if (playerExist) {
-               String sql = "SELECT coins FROM player_coins WHERE uuid = ?";
+        query.whenComplete((result, throwable) -> {
+            this.loadingPlayers.remove(uuid, future);
+            if (throwable != null) {
+                future.completeExceptionally(throwable);
+                return;
+            }
 
-               this.mySQLManager.queryAsync(sql, resultSet -> {
-                   try {
-                       this.coinsCache.put(uuid, resultSet.getInt("coins"));
-                   } catch (SQLException exception) {
-                       throw new RuntimeException(exception);
-                   }
-                   return null;
-               }, uuid.toString());
-           } else {
-               this.insertNewPlayer(uuid);
-               this.coinsCache.put(uuid, 0);
-           }
+            int loadedCoins = result.isEmpty() ? 0 : result.getFirst();
+            future.complete(this.coinsCache.putIfAbsent(uuid, loadedCoins));
         });
+        return future;
+    }
+
+    /**
+     * Loads the balances of many players with chunked {@code WHERE uuid IN (...)} queries. Players that are cached
+     * or already being loaded are skipped; single loads started meanwhile join the bulk query.
+     */
+    @Override
+    public CompletableFuture<Void> preload(Collection<UUID> uuids) {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        Map<UUID, CompletableFuture<Integer>> claimed = new LinkedHashMap<>();
+
+        for (UUID uuid : uuids) {
+            if (this.coinsCache.contains(uuid) || claimed.containsKey(uuid)) continue;
+
+            CompletableFuture<Integer> future = new CompletableFuture<>();
+            CompletableFuture<Integer> running = this.loadingPlayers.putIfAbsent(uuid, future);
+            if (running != null) {
+                futures.add(running);
+            } else {
+                claimed.put(uuid, future);
+                futures.add(future);
+            }
+        }
+
+        List<UUID> pending = new ArrayList<>(claimed.keySet());
+        for (int start = 0; start < pending.size(); start += PRELOAD_CHUNK_SIZE) {
+            this.preloadChunk(pending.subList(start, Math.min(start + PRELOAD_CHUNK_SIZE, pending.size())), claimed);
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
     }
 
-    private CompletableFuture<Boolean> doesPlayerExist(UUID uuid) {
-        String sql = "SELECT uuid FROM player_coins WHERE uuid = ?";
+    private void preloadChunk(List<UUID> chunk, Map<UUID, CompletableFuture<Integer>> claimed) {
+        // pad the IN list to a power of two so only a handful of statement shapes end up in the statement cache
+        int bucket = Math.min(PRELOAD_CHUNK_SIZE, Math.max(PRELOAD_MINIMUM_BUCKET, Integer.highestOneBit(chunk.size() - 1) << 1));
+        Object[] params = new Object[bucket];
+        for (int i = 0; i < bucket; i++) {
+            params[i] = BinaryUUID.toBytes(chunk.get(Math.min(i, chunk.size() - 1)));
+        }
+        String sql = "SELECT uuid, coins FROM player_coins WHERE uuid IN (" + "?, ".repeat(bucket - 1) + "?)";
 
-        return this.mySQLManager.queryAsync(sql, resultSet -> {
+        CompletableFuture<List<Map.Entry<UUID, Integer>>> query = this.mySQLManager.queryAsync(sql, resultSet -> {
             try {
-                return resultSet.getString("uuid");
+                return Map.entry(BinaryUUID.fromBytes(resultSet.getBytes("uuid")), toCoins(resultSet.getLong("coins")));
             } catch (SQLException exception) {
                 throw new RuntimeException(exception);
             }
-        }, uuid.toString()).thenApply(result -> {
-           if (!result.isEmpty()) {
-               return result.getFirst().equals(uuid.toString());
-           }
-           return false;
+        }, params);
+
+        query.whenComplete((rows, throwable) -> {
+            Map<UUID, Integer> loaded = new HashMap<>();
+            if (rows != null) {
+                rows.forEach(row -> loaded.put(row.getKey(), row.getValue()));
+            }
+
+            for (UUID uuid : chunk) {
+                CompletableFuture<Integer> future = claimed.get(uuid);
+                this.loadingPlayers.remove(uuid, future);
+                if (throwable != null) {
+                    future.completeExceptionally(throwable);
+                } else {
+                    future.complete(this.coinsCache.putIfAbsent(uuid, loaded.getOrDefault(uuid, 0)));
+                }
+            }
         });
     }
 
-    private void insertNewPlayer(UUID uuid) {
-        String sql = "INSERT INTO player_coins(uuid, coins) VALUES(?, ?)";
+    private static int readCoins(ResultSet resultSet) {
+        try {
+            return toCoins(resultSet.getLong("coins"));
+        } catch (SQLException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    // the column is a BIGINT, balances outside the int range are clamped instead of wrapping around
+    private static int toCoins(long coins) {
+        if (coins < Integer.MIN_VALUE || coins > Integer.MAX_VALUE) {
+            BaseAPI.getApi().getLogger().warning("Coin balance " + coins + " is outside the supported range and was clamped");
+            return coins < 0 ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        }
+        return (int) coins;
+    }
+
+    private void onChange(UUID uuid, CoinsChange change) {
+        if (!this.writeBehind) {
+            this.savePlayer(uuid);
+        } else if (this.coinsCache.getDirtyCount() >= this.flushThreshold && this.thresholdFlushScheduled.compareAndSet(false, true)) {
+            this.flush().whenComplete((ignored, throwable) -> this.thresholdFlushScheduled.set(false));
+        }
+
+        this.notifyBalanceListeners(uuid, change);
+        this.callChangeEvent(uuid, change);
+    }
+
+    /**
+     * Applies a change that another server has already persisted. Only cached balances are updated; the change
+     * is never written again.
+     */
+    public void applyRemoteChange(UUID uuid, int delta) {
+        CoinsChange change;
+        try {
+            change = this.coinsCache.applyPersisted(uuid, delta);
+        } catch (ArithmeticException exception) {
+            BaseAPI.getApi().getLogger().warning("Remote coin change of " + delta + " for " + uuid + " overflows the cached balance and was ignored");
+            return;
+        }
+        if (change == null) return;
+
+        this.notifyBalanceListeners(uuid, change);
+        this.callChangeEvent(uuid, change);
+    }
+
+    private void notifyBalanceListeners(UUID uuid, CoinsChange change) {
+        for (BalanceListener balanceListener : this.balanceListeners) {
+            try {
+                balanceListener.onBalanceChange(uuid, change.getOldCoins(), change.getNewCoins());
+            } catch (RuntimeException exception) {
+                BaseAPI.getApi().getLogger().log(Level.SEVERE, "Balance listener failed for " + uuid, exception);
+            }
+        }
+    }
+
+    @Override
+    public void addBalanceListener(BalanceListener balanceListener) {
+        this.balanceListeners.add(balanceListener);
+    }
+
+    @Override
+    public void removeBalanceListener(BalanceListener balanceListener) {
+        this.balanceListeners.remove(balanceListener);
+    }
+
+    private void callChangeEvent(UUID uuid, CoinsChange change) {
+        if (this.eventDispatcher != null) {
+            this.eventDispatcher.record(uuid, change);
+            return;
+        }
+
+        if (!Bukkit.isPrimaryThread()) {
+            Bukkit.getScheduler().runTask(BaseAPI.getApi(), () -> this.callChangeEvent(uuid, change));
+            return;
+        }
+
+        Player player = Bukkit.getPlayer(uuid);
+        if (player != null && player.isOnline()) {
+            PlayerCoinsChangeEvent event = new PlayerCoinsChangeEvent(player, change.getNewCoins(), change.getOldCoins(), change.getDelta());
+            Bukkit.getPluginManager().callEvent(event);
+        }
+    }
 
-        this.mySQLManager.updateAsync(sql, uuid.toString(), 0);
+    /**
+     * Pins the player and loads the balance, inserting the row for new players. If a plain load for the player is
+     * already running it is joined instead; the row is then created by the first saved change.
+     */
+    @Override
+    public CompletableFuture<Integer> loadPlayer(UUID uuid) {
+        this.coinsCache.pin(uuid);
+        return this.loadCoins(uuid, true);
     }
 
+    @Override
+    public void unloadPlayer(UUID uuid) {
+        this.coinsCache.unpin(uuid);
+        this.saveDelta(uuid).whenComplete((ignored, throwable) -> this.coinsCache.evict(uuid));
+    }
+
+    @Override
     public void savePlayer(UUID uuid) {
-        if (!this.coinsCache.containsKey(uuid)) return;
+        this.saveDelta(uuid);
+    }
+
+    private CompletableFuture<Void> saveDelta(UUID uuid) {
+        int delta = this.coinsCache.drain(uuid);
+        if (delta == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
 
-        String sql = "UPDATE player_coins SET coins = ? WHERE uuid = ?";
-        this.mySQLManager.updateAsync(sql, this.coinsCache.get(uuid), uuid.toString());
+        return this.write(Map.of(uuid, delta), Map.of());
     }
 
+    @Override
     public void saveAllPlayers() {
-        for (UUID uuid : this.coinsCache.keySet()) {
-            this.savePlayer(uuid);
+        this.flush();
+    }
+
+    @Override
+    public CompletableFuture<Void> flush() {
+        Map<UUID, Integer> deltas = new HashMap<>();
+        for (UUID uuid : this.coinsCache.getDirtyPlayers()) {
+            int delta = this.coinsCache.drain(uuid);
+            if (delta != 0) {
+                deltas.put(uuid, delta);
+            }
+        }
+        Map<UUID, Integer> backlog = this.journal != null ? this.journal.takeBacklog() : Map.of();
+        if (deltas.isEmpty() && backlog.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return this.write(deltas, backlog);
+    }
+
+    /**
+     * Adds the drained deltas and the recovered journal backlog to the database. With the journal the batch is
+     * prepared first and its id is inserted in the same transaction, so a crash during the write is resolved on the
+     * next start, and a connection lost during the commit is resolved by {@link #resolveBatch}.
+     */
+    private CompletableFuture<Void> write(Map<UUID, Integer> deltas, Map<UUID, Integer> backlog) {
+        Map<UUID, Integer> batch = new HashMap<>(deltas);
+        backlog.forEach((uuid, delta) -> batch.merge(uuid, delta, Integer::sum));
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        batch.forEach((uuid, delta) -> rows.add(new Object[]{BinaryUUID.toBytes(uuid), delta}));
+
+        long batchId = ThreadLocalRandom.current().nextLong();
+        CompletableFuture<?> write;
+        try {
+            if (this.journal == null) {
+                write = this.mySQLManager.updateBatchAsync(UPSERT_DELTA_SQL, rows);
+            } else {
+                // fails if the journal is full, the batch then stays drained and is retried
+                this.journal.prepare(batchId, batch);
+                write = this.mySQLManager.inTransactionAsync(context -> {
+                    context.updateBatch(UPSERT_DELTA_SQL, rows);
+                    context.update(INSERT_BATCH_SQL, batchId);
+                });
+            }
+        } catch (RuntimeException exception) {
+            write = CompletableFuture.failedFuture(exception);
+        }
+
+        return write.handle((ignored, throwable) -> {
+            if (throwable != null && this.journal != null && isCommitUnknown(throwable)) {
+                BaseAPI.getApi().getLogger().log(Level.WARNING, "Lost the connection while saving coins of " + rows.size()
+                        + " player(s), looking up batch " + batchId, throwable);
+                return this.resolveBatch(batchId, deltas, backlog);
+            }
+
+            if (throwable != null) {
+                BaseAPI.getApi().getLogger().log(Level.SEVERE, "Could not save coins of " + rows.size() + " player(s)", throwable);
+            }
+            this.completeWrite(batchId, deltas, backlog, throwable == null);
+            return CompletableFuture.<Void>completedFuture(null);
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Decides a batch whose COMMIT may or may not have reached the server by looking up its id, like the recovery
+     * on startup does. The drained deltas stay in flight until then. While MySQL is unreachable the lookup is
+     * retried; on shutdown the batch is left prepared in the journal and resolved on the next start.
+     */
+    private CompletableFuture<Void> resolveBatch(long batchId, Map<UUID, Integer> deltas, Map<UUID, Integer> backlog) {
+        return this.mySQLManager.queryAsync(SELECT_BATCH_SQL, resultSet -> batchId, batchId).handle((committed, throwable) -> {
+            if (throwable == null) {
+                this.completeWrite(batchId, deltas, backlog, !committed.isEmpty());
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+            if (this.shuttingDown) {
+                BaseAPI.getApi().getLogger().warning("Could not look up coin batch " + batchId + ", it is resolved on the next start");
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+
+            CompletableFuture<Void> retry = new CompletableFuture<>();
+            Bukkit.getScheduler().runTaskLaterAsynchronously(BaseAPI.getApi(), () ->
+                    this.resolveBatch(batchId, deltas, backlog).whenComplete((ignored, failure) -> retry.complete(null)),
+                    BATCH_LOOKUP_RETRY_TICKS);
+            return retry;
+        }).thenCompose(Function.identity());
+    }
+
+    private void completeWrite(long batchId, Map<UUID, Integer> deltas, Map<UUID, Integer> backlog, boolean written) {
+        if (this.journal != null) {
+            if (written) {
+                this.journal.confirm(batchId);
+            } else {
+                this.journal.abort(batchId);
+                this.journal.restoreBacklog(backlog);
+            }
+        }
+        deltas.forEach((uuid, delta) -> this.coinsCache.completeDrain(uuid, delta, written));
+    }
+
+    private static boolean isCommitUnknown(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException exception) {
+                return SQLErrorClassifier.classify(exception) == SQLErrorClassifier.Category.CONNECTION;
+            }
+        }
+        return false;
+    }
+
+    public void shutdown() {
+        this.shuttingDown = true;
+        if (this.flushTask != null) {
+            this.flushTask.cancel();
+        }
+        this.cleanupTask.cancel();
+        if (this.eventDispatcher != null) {
+            this.eventDispatcher.shutdown();
+        }
+        if (this.journalTask != null) {
+            this.journalTask.cancel();
+        }
+        this.flush().join();
+        if (this.journal != null) {
+            this.journal.close();
         }
     }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.coins;
+
+import de.t0bx.basecore.database.SchemaMigrator;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Schema history of the {@code player_coins} table.
+ */
+public final class CoinsSchema {
+
+    private CoinsSchema() {
+    }
+
+    public static void registerMigrations(SchemaMigrator migrator) {
+        migrator.register(1, "create player_coins",
+                context -> context.update("CREATE TABLE IF NOT EXISTS player_coins(uuid VARCHAR(36) PRIMARY KEY, coins INT NOT NULL)"));
+
+        // copies into a new table instead of altering in place; the copy is skipped if a previous run already swapped the tables
+        migrator.register(2, "store uuid as BINARY(16) and coins as BIGINT", context -> {
+            List<String> uuidType = context.query("SELECT DATA_TYPE FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() "
+                    + "AND TABLE_NAME = 'player_coins' AND COLUMN_NAME = 'uuid'", resultSet -> {
+                try {
+                    return resultSet.getString("DATA_TYPE");
+                } catch (SQLException exception) {
+                    throw new RuntimeException(exception);
+                }
+            });
+            if (!uuidType.isEmpty() && uuidType.getFirst().equalsIgnoreCase("binary")) return;
+
+            context.update("DROP TABLE IF EXISTS player_coins_migration");
+            context.update("CREATE TABLE player_coins_migration(uuid BINARY(16) NOT NULL PRIMARY KEY, coins BIGINT NOT NULL DEFAULT 0)");
+            context.update("INSERT INTO player_coins_migration(uuid, coins) SELECT UNHEX(REPLACE(uuid, '-', '')), coins FROM player_coins");
+            context.update("RENAME TABLE player_coins TO player_coins_legacy, player_coins_migration TO player_coins");
+            context.update("DROP TABLE player_coins_legacy");
+        });
+
+        // DDL commits implicitly, so the index may exist without its version row after a crash
+        migrator.register(3, "index coins for the leaderboard", context -> {
+            List<Integer> existing = context.query("SELECT COUNT(*) AS existing FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() "
+                    + "AND TABLE_NAME = 'player_coins' AND INDEX_NAME = 'idx_player_coins_coins'", resultSet -> {
+                try {
+                    return resultSet.getInt("existing");
+                } catch (SQLException exception) {
+                    throw new RuntimeException(exception);
+                }
+            });
+            if (!existing.isEmpty() && existing.getFirst() > 0) return;
+
+            context.update("CREATE INDEX idx_player_coins_coins ON player_coins(coins)");
+        });
+        migrator.register(4, "create coin_journal_batches",
+                context -> context.update("CREATE TABLE IF NOT EXISTS coin_journal_batches (batch_id BIGINT PRIMARY KEY, created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)"));
+    }
+}
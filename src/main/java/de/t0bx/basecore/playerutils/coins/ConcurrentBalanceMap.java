@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+package de.t0bx.basecore.playerutils.coins;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * {@link BalanceMap} on top of a ConcurrentHashMap with one entry object per player.
+ */
+class ConcurrentBalanceMap implements BalanceMap {
+
+    private static final long ACCESS_GRANULARITY_MILLIS = 1000L;
+
+    private final ConcurrentHashMap<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    // ConcurrentHashMap has no random access, samples continue where the previous one stopped instead
+    private Iterator<Map.Entry<UUID, Entry>> sampler;
+
+    @Override
+    public long get(UUID uuid) {
+        Entry entry = this.entries.get(uuid);
+        if (entry == null) {
+            return MISSING;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - entry.lastAccess > ACCESS_GRANULARITY_MILLIS) {
+            entry.lastAccess = now;
+        }
+        return entry.coins;
+    }
+
+    @Override
+    public boolean contains(UUID uuid) {
+        return this.entries.containsKey(uuid);
+    }
+
+    @Override
+    public int size() {
+        return this.entries.size();
+    }
+
+    @Override
+    public int putIfAbsent(UUID uuid, int coins) {
+        Entry entry = this.entries.computeIfAbsent(uuid, key -> new Entry(coins));
+        entry.lastAccess = System.currentTimeMillis();
+        return entry.coins;
+    }
+
+    @Override
+    public long apply(UUID uuid, boolean create, int initialCoins, boolean set, int amount, CoinsJournal journal) {
+        long[] change = {MISSING};
+        // compute only locks the bin of this uuid, so changes for different players never block each other
+        this.entries.compute(uuid, (key, entry) -> {
+            if (entry == null) {
+                if (!create) return null;
+                entry = new Entry(initialCoins);
+            }
+
+            int current = entry.coins;
+            int updated = set ? amount : Math.addExact(current, amount);
+            int pendingDelta = Math.addExact(entry.pendingDelta, Math.subtractExact(updated, current));
+            if (journal != null) {
+                journal.appendMutation(uuid, (long) updated - current);
+            }
+            entry.coins = updated;
+            entry.pendingDelta = pendingDelta;
+            entry.lastAccess = System.currentTimeMillis();
+            change[0] = BalanceMap.pack(current, updated);
+            return entry;
+        });
+        return change[0];
+    }
+
+    @Override
+    public long applyPersisted(UUID uuid, int delta) {
+        long[] change = {MISSING};
+        this.entries.computeIfPresent(uuid, (key, entry) -> {
+            int current = entry.coins;
+            entry.coins = Math.addExact(current, delta);
+            change[0] = BalanceMap.pack(current, entry.coins);
+            return entry;
+        });
+        return change[0];
+    }
+
+    @Override
+    public int drain(UUID uuid) {
+        int[] delta = new int[1];
+        this.entries.computeIfPresent(uuid, (key, entry) -> {
+            delta[0] = entry.pendingDelta;
+            if (delta[0] != 0) {
+                entry.pendingDelta = 0;
+                entry.inFlight++;
+            }
+            return entry;
+        });
+        return delta[0];
+    }
+
+    @Override
+    public boolean completeDrain(UUID uuid, int delta, boolean written) {
+        boolean[] dirty = new boolean[1];
+        this.entries.computeIfPresent(uuid, (key, entry) -> {
+            entry.inFlight--;
+            if (!written) {
+                entry.pendingDelta += delta;
+            }
+            dirty[0] = entry.pendingDelta != 0;
+            return entry;
+        });
+        return dirty[0];
+    }
+
+    @Override
+    public boolean removeIfClean(UUID uuid) {
+        boolean[] removed = new boolean[1];
+        this.entries.computeIfPresent(uuid, (key, entry) -> {
+            if (entry.pendingDelta != 0 || entry.inFlight > 0) {
+                return entry;
+            }
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    @Override
+    public void forEachAccess(ObjLongConsumer<UUID> consumer) {
+        this.entries.forEach((uuid, entry) -> consumer.accept(uuid, entry.lastAccess));
+    }
+
+    @Override
+    public synchronized void sampleClean(int count, ObjLongConsumer<UUID> consumer) {
+        int found = 0;
+        for (int visited = 0, size = this.entries.size(); visited < size && found < count; visited++) {
+            if (this.sampler == null || !this.sampler.hasNext()) {
+                this.sampler = this.entries.entrySet().iterator();
+                if (!this.sampler.hasNext()) return;
+            }
+
+            Map.Entry<UUID, Entry> next = this.sampler.next();
+            Entry entry = next.getValue();
+            // unlocked read, removeIfClean checks again
+            if (entry.pendingDelta != 0 || entry.inFlight > 0) continue;
+
+            consumer.accept(next.getKey(), entry.lastAccess);
+            found++;
+        }
+    }
+
+    private static final class Entry {
+
+        private volatile int coins;
+        private volatile long lastAccess;
+
+        // guarded by the ConcurrentHashMap bin lock of the entry
+        private int pendingDelta;
+        private int inFlight;
+
+        private Entry(int coins) {
+            this.coins = coins;
+            this.lastAccess = System.currentTimeMillis();
+        }
+    }
+}
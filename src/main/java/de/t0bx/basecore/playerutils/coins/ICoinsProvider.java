@@ -10,8 +10,14 @@
 
 package de.t0bx.basecore.playerutils.coins;
 
+import java.util.Collection;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Coin balances of players. Only the synchronous methods have to be implemented; the other methods default to
+ * them, so implementations without a cache or persistence of their own keep working.
+ */
 public interface ICoinsProvider {
 
     int getCoins(UUID uuid);
@@ -21,4 +27,55 @@ public interface ICoinsProvider {
     void removeCoins(UUID uuid, int amount);
 
     void setCoins(UUID uuid, int amount);
+
+    default CompletableFuture<Integer> getCoinsAsync(UUID uuid) {
+        return CompletableFuture.completedFuture(this.getCoins(uuid));
+    }
+
+    default CompletableFuture<Integer> addCoinsAsync(UUID uuid, int amount) {
+        this.addCoins(uuid, amount);
+        return this.getCoinsAsync(uuid);
+    }
+
+    default CompletableFuture<Integer> removeCoinsAsync(UUID uuid, int amount) {
+        this.removeCoins(uuid, amount);
+        return this.getCoinsAsync(uuid);
+    }
+
+    default CompletableFuture<Integer> setCoinsAsync(UUID uuid, int amount) {
+        this.setCoins(uuid, amount);
+        return this.getCoinsAsync(uuid);
+    }
+
+    default CompletableFuture<Integer> loadPlayer(UUID uuid) {
+        return this.getCoinsAsync(uuid);
+    }
+
+    default CompletableFuture<Void> preload(Collection<UUID> uuids) {
+        return CompletableFuture.allOf(uuids.stream().map(this::getCoinsAsync).toArray(CompletableFuture[]::new));
+    }
+
+    default void unloadPlayer(UUID uuid) {
+    }
+
+    default void savePlayer(UUID uuid) {
+    }
+
+    default void saveAllPlayers() {
+    }
+
+    default CompletableFuture<Void> flush() {
+        this.saveAllPlayers();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * @throws UnsupportedOperationException if the implementation does not report balance changes
+     */
+    default void addBalanceListener(BalanceListener balanceListener) {
+        throw new UnsupportedOperationException(this.getClass().getName() + " does not support balance listeners");
+    }
+
+    default void removeBalanceListener(BalanceListener balanceListener) {
+    }
 }
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.coins;
+
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+public class LeaderboardEntry {
+
+    private final int rank;
+    private final UUID uuid;
+    private final long coins;
+
+    public LeaderboardEntry(int rank, UUID uuid, long coins) {
+        this.rank = rank;
+        this.uuid = uuid;
+        this.coins = coins;
+    }
+}
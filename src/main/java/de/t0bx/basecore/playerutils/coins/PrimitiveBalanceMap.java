@@ -0,0 +1,475 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+package de.t0bx.basecore.playerutils.coins;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * {@link BalanceMap} keyed by the two longs of the UUID. Entries live in open-addressed parallel arrays
+ * (linear probing, backward-shift deletion), so looking up or changing a balance allocates nothing. A slot takes
+ * 29 bytes: the key, balance, pending delta and access time, plus one state byte that marks free slots and counts
+ * the writes in flight. Tables are at most 4/5 full and grow by half, so a table that just grew is still 8/15 full.
+ * The map is split into segments with their own {@link StampedLock}; reads are optimistic and only fall back to
+ * the read lock when they raced with a writer of the same segment.
+ */
+class PrimitiveBalanceMap implements BalanceMap {
+
+    private static final int SEGMENT_COUNT = 64;
+    private static final int SEGMENT_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(SEGMENT_COUNT);
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+    // a slot state is FREE or one more than the number of writes in flight
+    private static final byte FREE = 0;
+    private static final byte IDLE = 1;
+    private static final byte MAX_IN_FLIGHT = Byte.MAX_VALUE - IDLE;
+
+    private final Segment[] segments;
+
+    // access times are stored as seconds since this instant to keep them in an int
+    private final long epochMillis;
+
+    PrimitiveBalanceMap() {
+        this.segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            this.segments[i] = new Segment();
+        }
+        this.epochMillis = System.currentTimeMillis();
+    }
+
+    @Override
+    public long get(UUID uuid) {
+        long mostSigBits = uuid.getMostSignificantBits();
+        long leastSigBits = uuid.getLeastSignificantBits();
+        long hash = hash(mostSigBits, leastSigBits);
+        Segment segment = this.segmentFor(hash);
+
+        long stamp = segment.lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            Table table = segment.table;
+            int slot = table.find(mostSigBits, leastSigBits, hash);
+            int coins = slot >= 0 ? table.coins[slot] : 0;
+            if (segment.lock.validate(stamp)) {
+                if (slot < 0) return MISSING;
+                // unlocked write: a racing writer can at worst move the timestamp to a neighbouring entry
+                this.touch(table, slot);
+                return coins;
+            }
+        }
+
+        stamp = segment.lock.readLock();
+        try {
+            Table table = segment.table;
+            int slot = table.find(mostSigBits, leastSigBits, hash);
+            if (slot < 0) return MISSING;
+            this.touch(table, slot);
+            return table.coins[slot];
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean contains(UUID uuid) {
+        long mostSigBits = uuid.getMostSignificantBits();
+        long leastSigBits = uuid.getLeastSignificantBits();
+        long hash = hash(mostSigBits, leastSigBits);
+        Segment segment = this.segmentFor(hash);
+
+        long stamp = segment.lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            boolean found = segment.table.find(mostSigBits, leastSigBits, hash) >= 0;
+            if (segment.lock.validate(stamp)) {
+                return found;
+            }
+        }
+
+        stamp = segment.lock.readLock();
+        try {
+            return segment.table.find(mostSigBits, leastSigBits, hash) >= 0;
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment segment : this.segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    @Override
+    public int putIfAbsent(UUID uuid, int coins) {
+        long mostSigBits = uuid.getMostSignificantBits();
+        long leastSigBits = uuid.getLeastSignificantBits();
+        long hash = hash(mostSigBits, leastSigBits);
+        Segment segment = this.segmentFor(hash);
+
+        long stamp = segment.lock.writeLock();
+        try {
+            int slot = segment.findOrInsert(mostSigBits, leastSigBits, hash, coins, this.now());
+            segment.table.access[slot] = this.now();
+            return segment.table.coins[slot];
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public long apply(UUID uuid, boolean create, int initialCoins, boolean set, int amount, CoinsJournal journal) {
+        long mostSigBits = uuid.getMostSignificantBits();
+        long leastSigBits = uuid.getLeastSignificantBits();
+        long hash = hash(mostSigBits, leastSigBits);
+        Segment segment = this.segmentFor(hash);
+
+        long stamp = segment.lock.writeLock();
+        try {
+            int slot = create
+                    ? segment.findOrInsert(mostSigBits, leastSigBits, hash, initialCoins, this.now())
+                    : segment.table.find(mostSigBits, leastSigBits, hash);
+            if (slot < 0) return MISSING;
+
+            Table table = segment.table;
+            int current = table.coins[slot];
+            int updated = set ? amount : Math.addExact(current, amount);
+            int pendingDelta = Math.addExact(table.pendingDeltas[slot], Math.subtractExact(updated, current));
+            // under the segment lock, so journal order matches the order of the changes
+            if (journal != null) {
+                journal.appendMutation(uuid, (long) updated - current);
+            }
+            table.coins[slot] = updated;
+            table.pendingDeltas[slot] = pendingDelta;
+            table.access[slot] = this.now();
+            return BalanceMap.pack(current, updated);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public long applyPersisted(UUID uuid, int delta) {
+        long mostSigBits = uuid.getMostSignificantBits();
+        long leastSigBits = uuid.getLeastSignificantBits();
+        long hash = hash(mostSigBits, leastSigBits);
+        Segment segment = this.segmentFor(hash);
+
+        long stamp = segment.lock.writeLock();
+        try {
+            Table table = segment.table;
+            int slot = table.find(mostSigBits, leastSigBits, hash);
+            if (slot < 0) return MISSING;
+
+            int current = table.coins[slot];
+            int updated = Math.addExact(current, delta);
+            table.coins[slot] = updated;
+            return BalanceMap.pack(current, updated);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int drain(UUID uuid) {
+        long mostSigBits = uuid.getMostSignificantBits();
+        long leastSigBits = uuid.getLeastSignificantBits();
+        long hash = hash(mostSigBits, leastSigBits);
+        Segment segment = this.segmentFor(hash);
+
+        long stamp = segment.lock.writeLock();
+        try {
+            Table table = segment.table;
+            int slot = table.find(mostSigBits, leastSigBits, hash);
+            if (slot < 0) return 0;
+
+            int delta = table.pendingDeltas[slot];
+            // beyond the limit the delta stays pending, completing one of the earlier writes marks it dirty again
+            if (delta == 0 || table.states[slot] - IDLE == MAX_IN_FLIGHT) return 0;
+
+            table.pendingDeltas[slot] = 0;
+            table.states[slot]++;
+            return delta;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean completeDrain(UUID uuid, int delta, boolean written) {
+        long mostSigBits = uuid.getMostSignificantBits();
+        long leastSigBits = uuid.getLeastSignificantBits();
+        long hash = hash(mostSigBits, leastSigBits);
+        Segment segment = this.segmentFor(hash);
+
+        long stamp = segment.lock.writeLock();
+        try {
+            Table table = segment.table;
+            int slot = table.find(mostSigBits, leastSigBits, hash);
+            if (slot < 0) return false;
+
+            table.states[slot]--;
+            if (!written) {
+                table.pendingDeltas[slot] += delta;
+            }
+            return table.pendingDeltas[slot] != 0;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean removeIfClean(UUID uuid) {
+        long mostSigBits = uuid.getMostSignificantBits();
+        long leastSigBits = uuid.getLeastSignificantBits();
+        long hash = hash(mostSigBits, leastSigBits);
+        Segment segment = this.segmentFor(hash);
+
+        long stamp = segment.lock.writeLock();
+        try {
+            Table table = segment.table;
+            int slot = table.find(mostSigBits, leastSigBits, hash);
+            if (slot < 0 || table.pendingDeltas[slot] != 0 || table.states[slot] != IDLE) {
+                return false;
+            }
+
+            segment.removeAt(slot);
+            return true;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void forEachAccess(ObjLongConsumer<UUID> consumer) {
+        for (Segment segment : this.segments) {
+            long[] mostSigBits;
+            long[] leastSigBits;
+            int[] access;
+            int count = 0;
+
+            long stamp = segment.lock.readLock();
+            try {
+                Table table = segment.table;
+                mostSigBits = new long[segment.size];
+                leastSigBits = new long[segment.size];
+                access = new int[segment.size];
+                for (int slot = 0; slot < table.capacity; slot++) {
+                    if (table.states[slot] == FREE) continue;
+                    mostSigBits[count] = table.mostSigBits[slot];
+                    leastSigBits[count] = table.leastSigBits[slot];
+                    access[count] = table.access[slot];
+                    count++;
+                }
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+
+            // the consumer runs outside the lock, it may call back into the map
+            for (int i = 0; i < count; i++) {
+                consumer.accept(new UUID(mostSigBits[i], leastSigBits[i]), this.epochMillis + access[i] * 1000L);
+            }
+        }
+    }
+
+    @Override
+    public void sampleClean(int count, ObjLongConsumer<UUID> consumer) {
+        long[] mostSigBits = new long[count];
+        long[] leastSigBits = new long[count];
+        int[] access = new int[count];
+        int found = 0;
+
+        // one entry per segment, starting at a random segment and slot, so the sample is spread over the map
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int firstSegment = random.nextInt(SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT && found < count; i++) {
+            Segment segment = this.segments[(firstSegment + i) & (SEGMENT_COUNT - 1)];
+            if (segment.size == 0) continue;
+
+            long stamp = segment.lock.readLock();
+            try {
+                Table table = segment.table;
+                int slot = random.nextInt(table.capacity);
+                for (int j = 0; j < table.capacity; j++, slot = table.next(slot)) {
+                    if (table.states[slot] != IDLE || table.pendingDeltas[slot] != 0) continue;
+
+                    mostSigBits[found] = table.mostSigBits[slot];
+                    leastSigBits[found] = table.leastSigBits[slot];
+                    access[found] = table.access[slot];
+                    found++;
+                    break;
+                }
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+
+        for (int i = 0; i < found; i++) {
+            consumer.accept(new UUID(mostSigBits[i], leastSigBits[i]), this.epochMillis + access[i] * 1000L);
+        }
+    }
+
+    private Segment segmentFor(long hash) {
+        return this.segments[(int) (hash >>> SEGMENT_SHIFT)];
+    }
+
+    private int now() {
+        return (int) ((System.currentTimeMillis() - this.epochMillis) / 1000L);
+    }
+
+    private void touch(Table table, int slot) {
+        int now = this.now();
+        if (table.access[slot] != now) {
+            table.access[slot] = now;
+        }
+    }
+
+    private static long hash(long mostSigBits, long leastSigBits) {
+        long hash = mostSigBits * 0x9E3779B97F4A7C15L ^ leastSigBits;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static final class Segment {
+
+        private final StampedLock lock = new StampedLock();
+
+        // replaced as a whole on resize, so an optimistic reader always sees arrays of the same length
+        private Table table = new Table(INITIAL_SEGMENT_CAPACITY);
+        private volatile int size;
+
+        // callers hold the write lock
+        private int findOrInsert(long mostSigBits, long leastSigBits, long hash, int coins, int now) {
+            int slot = this.table.find(mostSigBits, leastSigBits, hash);
+            if (slot >= 0) return slot;
+
+            if ((this.size + 1) * 5L > this.table.capacity * 4L) {
+                this.resize();
+            }
+
+            Table table = this.table;
+            slot = table.home(hash);
+            while (table.states[slot] != FREE) {
+                slot = table.next(slot);
+            }
+
+            table.states[slot] = IDLE;
+            table.mostSigBits[slot] = mostSigBits;
+            table.leastSigBits[slot] = leastSigBits;
+            table.coins[slot] = coins;
+            table.pendingDeltas[slot] = 0;
+            table.access[slot] = now;
+            this.size++;
+            return slot;
+        }
+
+        // callers hold the write lock
+        private void removeAt(int slot) {
+            Table table = this.table;
+            int hole = slot;
+            int next = slot;
+
+            while (true) {
+                next = table.next(next);
+                if (table.states[next] == FREE) break;
+
+                int home = table.home(hash(table.mostSigBits[next], table.leastSigBits[next]));
+                boolean reachable = hole <= next ? home > hole && home <= next : home > hole || home <= next;
+                if (!reachable) {
+                    table.copy(next, hole);
+                    hole = next;
+                }
+            }
+
+            table.states[hole] = FREE;
+            this.size--;
+        }
+
+        private void resize() {
+            Table old = this.table;
+            Table resized = new Table(old.capacity + old.capacity / 2);
+            for (int slot = 0; slot < old.capacity; slot++) {
+                if (old.states[slot] == FREE) continue;
+
+                int target = resized.home(hash(old.mostSigBits[slot], old.leastSigBits[slot]));
+                while (resized.states[target] != FREE) {
+                    target = resized.next(target);
+                }
+                resized.states[target] = old.states[slot];
+                resized.mostSigBits[target] = old.mostSigBits[slot];
+                resized.leastSigBits[target] = old.leastSigBits[slot];
+                resized.coins[target] = old.coins[slot];
+                resized.pendingDeltas[target] = old.pendingDeltas[slot];
+                resized.access[target] = old.access[slot];
+            }
+            this.table = resized;
+        }
+    }
+
+    private static final class Table {
+
+        private final int capacity;
+        private final byte[] states;
+        private final long[] mostSigBits;
+        private final long[] leastSigBits;
+        private final int[] coins;
+        private final int[] pendingDeltas;
+        private final int[] access;
+
+        private Table(int capacity) {
+            this.capacity = capacity;
+            this.states = new byte[capacity];
+            this.mostSigBits = new long[capacity];
+            this.leastSigBits = new long[capacity];
+            this.coins = new int[capacity];
+            this.pendingDeltas = new int[capacity];
+            this.access = new int[capacity];
+        }
+
+        /**
+         * @return the slot of the key or -1; bounded by the capacity so a torn optimistic read cannot spin forever
+         */
+        private int find(long mostSigBits, long leastSigBits, long hash) {
+            int slot = this.home(hash);
+            for (int probes = 0; probes < this.capacity; probes++) {
+                if (this.states[slot] == FREE) return -1;
+                if (this.mostSigBits[slot] == mostSigBits && this.leastSigBits[slot] == leastSigBits) return slot;
+                slot = this.next(slot);
+            }
+            return -1;
+        }
+
+        // maps the low half of the hash onto the table with a multiply, which works for any capacity; the high bits
+        // already picked the segment
+        private int home(long hash) {
+            return (int) (((hash & 0xFFFFFFFFL) * this.capacity) >>> 32);
+        }
+
+        private int next(int slot) {
+            return slot + 1 == this.capacity ? 0 : slot + 1;
+        }
+
+        private void copy(int from, int to) {
+            this.mostSigBits[to] = this.mostSigBits[from];
+            this.leastSigBits[to] = this.leastSigBits[from];
+            this.coins[to] = this.coins[from];
+            this.pendingDeltas[to] = this.pendingDeltas[from];
+            this.states[to] = this.states[from];
+            this.access[to] = this.access[from];
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.coins;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Skip list ordered by coins (descending, ties by UUID) where every forward link also stores how many entries it
+ * skips. That makes rank lookups and access by rank O(log n). Not thread-safe.
+ */
+final class RankedSkipList {
+
+    private static final int MAX_LEVEL = 32;
+
+    private final Node head;
+    private int level;
+    private int size;
+
+    RankedSkipList() {
+        this.head = new Node(null, 0L, MAX_LEVEL);
+        this.level = 1;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    void insert(UUID uuid, long coins) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+
+        Node node = this.head;
+        for (int i = this.level - 1; i >= 0; i--) {
+            rank[i] = i == this.level - 1 ? 0 : rank[i + 1];
+            while (node.next[i] != null && before(node.next[i], coins, uuid)) {
+                rank[i] += node.span[i];
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > this.level) {
+            for (int i = this.level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = this.head;
+                this.head.span[i] = this.size;
+            }
+            this.level = nodeLevel;
+        }
+
+        Node inserted = new Node(uuid, coins, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            inserted.next[i] = update[i].next[i];
+            update[i].next[i] = inserted;
+            inserted.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < this.level; i++) {
+            update[i].span[i]++;
+        }
+        this.size++;
+    }
+
+    boolean remove(UUID uuid, long coins) {
+        Node[] update = new Node[MAX_LEVEL];
+
+        Node node = this.head;
+        for (int i = this.level - 1; i >= 0; i--) {
+            while (node.next[i] != null && before(node.next[i], coins, uuid)) {
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+
+        Node removed = node.next[0];
+        if (removed == null || removed.coins != coins || !removed.uuid.equals(uuid)) {
+            return false;
+        }
+
+        for (int i = 0; i < this.level; i++) {
+            if (update[i].next[i] == removed) {
+                update[i].span[i] += removed.span[i] - 1;
+                update[i].next[i] = removed.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (this.level > 1 && this.head.next[this.level - 1] == null) {
+            this.level--;
+        }
+        this.size--;
+        return true;
+    }
+
+    /**
+     * @return the 1-based rank of the entry or 0 if it is not in the list
+     */
+    int rankOf(UUID uuid, long coins) {
+        int rank = 0;
+        Node node = this.head;
+        for (int i = this.level - 1; i >= 0; i--) {
+            while (node.next[i] != null && (before(node.next[i], coins, uuid) || node.next[i].matches(uuid, coins))) {
+                rank += node.span[i];
+                node = node.next[i];
+            }
+            if (node != this.head && node.matches(uuid, coins)) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return the node at the 1-based rank or null if the rank is out of range
+     */
+    Node nodeAt(int rank) {
+        if (rank < 1 || rank > this.size) {
+            return null;
+        }
+
+        int traversed = 0;
+        Node node = this.head;
+        for (int i = this.level - 1; i >= 0; i--) {
+            while (node.next[i] != null && traversed + node.span[i] <= rank) {
+                traversed += node.span[i];
+                node = node.next[i];
+            }
+            if (traversed == rank) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private static boolean before(Node node, long coins, UUID uuid) {
+        return node.coins > coins || (node.coins == coins && node.uuid.compareTo(uuid) < 0);
+    }
+
+    private static int randomLevel() {
+        // promotion probability of 1/4, as in Redis sorted sets
+        int level = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (level < MAX_LEVEL && (random.nextInt() & 3) == 0) {
+            level++;
+        }
+        return level;
+    }
+
+    static final class Node {
+
+        final UUID uuid;
+        final long coins;
+        final Node[] next;
+        final int[] span;
+
+        private Node(UUID uuid, long coins, int level) {
+            this.uuid = uuid;
+            this.coins = coins;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+
+        Node next() {
+            return this.next[0];
+        }
+
+        private boolean matches(UUID uuid, long coins) {
+            return this.coins == coins && this.uuid.equals(uuid);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.coins.sync;
+
+import lombok.Getter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A batch of coin deltas published by one server. Wire format: version, sender id, entry count and one
+ * (uuid, delta) pair per entry.
+ */
+@Getter
+class CoinsSyncMessage {
+
+    private static final byte VERSION = 1;
+
+    private final UUID senderId;
+    private final List<Map.Entry<UUID, Integer>> deltas;
+
+    CoinsSyncMessage(UUID senderId, List<Map.Entry<UUID, Integer>> deltas) {
+        this.senderId = senderId;
+        this.deltas = deltas;
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(21 + this.deltas.size() * 20);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(VERSION);
+            writeUUID(output, this.senderId);
+            output.writeInt(this.deltas.size());
+            for (Map.Entry<UUID, Integer> delta : this.deltas) {
+                writeUUID(output, delta.getKey());
+                output.writeInt(delta.getValue());
+            }
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+        return bytes.toByteArray();
+    }
+
+    static CoinsSyncMessage decode(byte[] payload) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte version = input.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported coin sync message version " + version);
+            }
+
+            UUID senderId = readUUID(input);
+            int count = input.readInt();
+            List<Map.Entry<UUID, Integer>> deltas = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                deltas.add(Map.entry(readUUID(input), input.readInt()));
+            }
+            return new CoinsSyncMessage(senderId, deltas);
+        } catch (IOException exception) {
+            throw new IllegalArgumentException("Malformed coin sync message", exception);
+        }
+    }
+
+    private static void writeUUID(DataOutputStream output, UUID uuid) throws IOException {
+        output.writeLong(uuid.getMostSignificantBits());
+        output.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUUID(DataInputStream input) throws IOException {
+        return new UUID(input.readLong(), input.readLong());
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.coins.sync;
+
+import de.t0bx.basecore.BaseAPI;
+import de.t0bx.basecore.playerutils.coins.BalanceListener;
+import de.t0bx.basecore.playerutils.coins.CoinsProvider;
+import lombok.Getter;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Keeps the coin caches of several servers coherent. Local balance changes are summed per player and published
+ * as one batch of deltas per debounce interval; deltas received from other servers are applied to the local cache
+ * without being persisted again (the sending server owns the write).
+ * <p>
+ * Deltas for players that are not cached are dropped, the next load reads them from the database. A delta that
+ * arrives while the receiving server is loading the same player can be missed or counted twice, so balances of
+ * players who are not online anywhere may lag until their cache entry expires.
+ */
+public class CoinsSynchronizer implements BalanceListener {
+
+    @Getter
+    private final UUID nodeId;
+
+    private final CoinsProvider coinsProvider;
+    private final ICoinsSyncTransport transport;
+    private final ConcurrentHashMap<UUID, Integer> pendingDeltas;
+    private final ThreadLocal<Boolean> applyingRemote;
+    private final BukkitTask publishTask;
+
+    private final LongAdder publishedMessages;
+    private final LongAdder receivedMessages;
+    private final LongAdder appliedDeltas;
+
+    public CoinsSynchronizer(CoinsProvider coinsProvider, ICoinsSyncTransport transport, long debounceTicks) {
+        this.nodeId = UUID.randomUUID();
+        this.coinsProvider = coinsProvider;
+        this.transport = transport;
+        this.pendingDeltas = new ConcurrentHashMap<>();
+        this.applyingRemote = ThreadLocal.withInitial(() -> false);
+        this.publishedMessages = new LongAdder();
+        this.receivedMessages = new LongAdder();
+        this.appliedDeltas = new LongAdder();
+
+        this.transport.subscribe(this::receive);
+        this.coinsProvider.addBalanceListener(this);
+
+        long interval = Math.max(1L, debounceTicks);
+        this.publishTask = Bukkit.getScheduler().runTaskTimerAsynchronously(BaseAPI.getApi(), this::publish, interval, interval);
+    }
+
+    @Override
+    public void onBalanceChange(UUID uuid, int oldCoins, int newCoins) {
+        // changes applied from other servers must not be echoed back
+        if (this.applyingRemote.get() || oldCoins == newCoins) return;
+
+        this.pendingDeltas.merge(uuid, newCoins - oldCoins, Integer::sum);
+    }
+
+    /**
+     * Publishes every delta collected since the last call as one message.
+     */
+    public void publish() {
+        if (this.pendingDeltas.isEmpty()) return;
+
+        List<Map.Entry<UUID, Integer>> deltas = new ArrayList<>();
+        for (UUID uuid : this.pendingDeltas.keySet()) {
+            Integer delta = this.pendingDeltas.remove(uuid);
+            if (delta != null && delta != 0) {
+                deltas.add(Map.entry(uuid, delta));
+            }
+        }
+        if (deltas.isEmpty()) return;
+
+        try {
+            this.transport.publish(new CoinsSyncMessage(this.nodeId, deltas).encode());
+            this.publishedMessages.increment();
+        } catch (RuntimeException exception) {
+            BaseAPI.getApi().getLogger().log(Level.WARNING, "Could not publish " + deltas.size() + " coin change(s)", exception);
+        }
+    }
+
+    private void receive(byte[] payload) {
+        CoinsSyncMessage message;
+        try {
+            message = CoinsSyncMessage.decode(payload);
+        } catch (IllegalArgumentException exception) {
+            BaseAPI.getApi().getLogger().log(Level.WARNING, "Dropped coin sync message", exception);
+            return;
+        }
+        if (message.getSenderId().equals(this.nodeId)) return;
+
+        this.receivedMessages.increment();
+        this.applyingRemote.set(true);
+        try {
+            for (Map.Entry<UUID, Integer> delta : message.getDeltas()) {
+                this.coinsProvider.applyRemoteChange(delta.getKey(), delta.getValue());
+                this.appliedDeltas.increment();
+            }
+        } finally {
+            this.applyingRemote.set(false);
+        }
+    }
+
+    public long getPublishedMessages() {
+        return this.publishedMessages.sum();
+    }
+
+    public long getReceivedMessages() {
+        return this.receivedMessages.sum();
+    }
+
+    public long getAppliedDeltas() {
+        return this.appliedDeltas.sum();
+    }
+
+    public void shutdown() {
+        this.publishTask.cancel();
+        this.publish();
+        this.coinsProvider.removeBalanceListener(this);
+        this.transport.close();
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.coins.sync;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries coin sync messages between servers, e.g. over Redis pub/sub or a proxy messaging channel.
+ * Messages are opaque byte arrays; a transport may deliver a server its own messages back.
+ */
+public interface ICoinsSyncTransport {
+
+    void publish(byte[] payload);
+
+    void subscribe(Consumer<byte[]> receiver);
+
+    void close();
+}
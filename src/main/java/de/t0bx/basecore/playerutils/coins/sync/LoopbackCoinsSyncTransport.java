@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.coins.sync;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-JVM transport. Every transport created through {@link #connect()} joins the same network and receives all
+ * messages published on it, including its own. Delivery happens synchronously on the publishing thread.
+ */
+public class LoopbackCoinsSyncTransport implements ICoinsSyncTransport {
+
+    private final List<LoopbackCoinsSyncTransport> network;
+    private final List<Consumer<byte[]>> receivers;
+
+    public LoopbackCoinsSyncTransport() {
+        this(new CopyOnWriteArrayList<>());
+    }
+
+    private LoopbackCoinsSyncTransport(List<LoopbackCoinsSyncTransport> network) {
+        this.network = network;
+        this.receivers = new CopyOnWriteArrayList<>();
+        this.network.add(this);
+    }
+
+    /**
+     * @return a new transport on the same network, acting as another server
+     */
+    public LoopbackCoinsSyncTransport connect() {
+        return new LoopbackCoinsSyncTransport(this.network);
+    }
+
+    @Override
+    public void publish(byte[] payload) {
+        for (LoopbackCoinsSyncTransport transport : this.network) {
+            for (Consumer<byte[]> receiver : transport.receivers) {
+                receiver.accept(payload.clone());
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<byte[]> receiver) {
+        this.receivers.add(receiver);
+    }
+
+    @Override
+    public void close() {
+        this.network.remove(this);
+        this.receivers.clear();
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.uuid;
+
+import lombok.Getter;
+
+/**
+ * A cached lookup result. A {@code null} value records that the remote API does not know the key.
+ */
+@Getter
+public class CacheEntry<V> {
+
+    private final V value;
+
+    /**
+     * Epoch millis after which the entry must be fetched again.
+     */
+    private final long expiresAt;
+
+    public CacheEntry(V value, long expiresAt) {
+        this.value = value;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isNegative() {
+        return this.value == null;
+    }
+
+    public boolean isExpired(long now) {
+        return now >= this.expiresAt;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.uuid;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Second cache tier of the {@link ProfileCache} that survives restarts. Loads complete with {@code null} if the key
+ * is unknown or expired, saves run in the background.
+ */
+public interface IProfileStore {
+
+    /**
+     * @param nameKey lowercase name, Bedrock gamertags with a leading dot
+     */
+    CompletableFuture<CacheEntry<UUID>> loadUUID(String nameKey);
+
+    CompletableFuture<CacheEntry<String>> loadName(UUID uuid);
+
+    CompletableFuture<CacheEntry<SkinFetcher.SkinData>> loadTextures(UUID uuid);
+
+    void saveUUID(String nameKey, CacheEntry<UUID> entry);
+
+    void saveName(UUID uuid, CacheEntry<String> entry);
+
+    void saveTextures(UUID uuid, CacheEntry<SkinFetcher.SkinData> entry);
+
+    /**
+     * @return up to {@code limit} unexpired name to UUID entries, the longest valid first
+     */
+    CompletableFuture<Map<String, CacheEntry<UUID>>> loadRecentUUIDs(int limit);
+
+    /**
+     * @return up to {@code limit} unexpired UUID to name entries, the longest valid first
+     */
+    CompletableFuture<Map<UUID, CacheEntry<String>>> loadRecentNames(int limit);
+
+    /**
+     * Deletes expired entries.
+     */
+    CompletableFuture<Void> prune();
+}
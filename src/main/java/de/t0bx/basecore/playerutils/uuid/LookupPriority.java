@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.uuid;
+
+import lombok.Getter;
+
+/**
+ * Scheduling lane of a profile lookup. Queued interactive lookups are always sent before background ones.
+ */
+@Getter
+public enum LookupPriority {
+
+    /**
+     * Lookups a player is waiting for, for example from a command.
+     */
+    INTERACTIVE(256, 10_000L),
+
+    /**
+     * Prefetching and other lookups nobody is waiting for.
+     */
+    BACKGROUND(1024, 60_000L);
+
+    /**
+     * Lookups that may wait per endpoint. Further ones are rejected right away.
+     */
+    private final int queueCapacity;
+
+    /**
+     * Time a lookup may wait for a rate limit before it fails.
+     */
+    private final long maxQueueMillis;
+
+    LookupPriority(int queueCapacity, long maxQueueMillis) {
+        this.queueCapacity = queueCapacity;
+        this.maxQueueMillis = maxQueueMillis;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.uuid;
+
+import de.t0bx.basecore.BaseAPI;
+import de.t0bx.basecore.database.BinaryUUID;
+import de.t0bx.basecore.database.IMySQLManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * Keeps the {@link ProfileCache} in the tables of {@link ProfileSchema}. Saves are written asynchronously and only
+ * logged if they fail.
+ */
+public class MySQLProfileStore implements IProfileStore {
+
+    private static final int MAX_NAME_KEY_LENGTH = 64;
+    private static final int WARM_UP_FETCH_SIZE = 1000;
+
+    private static final String SELECT_UUID_SQL = "SELECT uuid, expires_at FROM profile_uuids WHERE name_key = ? AND expires_at > ?";
+    private static final String SELECT_NAME_SQL = "SELECT name, expires_at FROM profile_names WHERE uuid = ? AND expires_at > ?";
+    private static final String SELECT_TEXTURES_SQL = "SELECT skin_value, skin_signature, expires_at FROM profile_textures WHERE uuid = ? AND expires_at > ?";
+    private static final String UPSERT_UUID_SQL = "INSERT INTO profile_uuids(name_key, uuid, expires_at) VALUES(?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE uuid = VALUES(uuid), expires_at = VALUES(expires_at)";
+    private static final String UPSERT_NAME_SQL = "INSERT INTO profile_names(uuid, name, expires_at) VALUES(?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE name = VALUES(name), expires_at = VALUES(expires_at)";
+    private static final String UPSERT_TEXTURES_SQL = "INSERT INTO profile_textures(uuid, skin_value, skin_signature, expires_at) VALUES(?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE skin_value = VALUES(skin_value), skin_signature = VALUES(skin_signature), expires_at = VALUES(expires_at)";
+    private static final String SELECT_RECENT_UUIDS_SQL = "SELECT name_key, uuid, expires_at FROM profile_uuids WHERE expires_at > ? ORDER BY expires_at DESC LIMIT ?";
+    private static final String SELECT_RECENT_NAMES_SQL = "SELECT uuid, name, expires_at FROM profile_names WHERE expires_at > ? ORDER BY expires_at DESC LIMIT ?";
+
+    private final IMySQLManager mySQLManager;
+
+    public MySQLProfileStore(IMySQLManager mySQLManager) {
+        this.mySQLManager = mySQLManager;
+    }
+
+    @Override
+    public CompletableFuture<CacheEntry<UUID>> loadUUID(String nameKey) {
+        if (nameKey.length() > MAX_NAME_KEY_LENGTH) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return this.loadFirst(SELECT_UUID_SQL, resultSet -> {
+            try {
+                return new CacheEntry<>(readUUID(resultSet), resultSet.getLong("expires_at"));
+            } catch (SQLException exception) {
+                throw new RuntimeException(exception);
+            }
+        }, nameKey, System.currentTimeMillis());
+    }
+
+    @Override
+    public CompletableFuture<CacheEntry<String>> loadName(UUID uuid) {
+        return this.loadFirst(SELECT_NAME_SQL, resultSet -> {
+            try {
+                return new CacheEntry<>(resultSet.getString("name"), resultSet.getLong("expires_at"));
+            } catch (SQLException exception) {
+                throw new RuntimeException(exception);
+            }
+        }, BinaryUUID.toBytes(uuid), System.currentTimeMillis());
+    }
+
+    @Override
+    public CompletableFuture<CacheEntry<SkinFetcher.SkinData>> loadTextures(UUID uuid) {
+        return this.loadFirst(SELECT_TEXTURES_SQL, resultSet -> {
+            try {
+                String value = resultSet.getString("skin_value");
+                SkinFetcher.SkinData textures = value == null ? null : new SkinFetcher.SkinData(value, resultSet.getString("skin_signature"));
+                return new CacheEntry<>(textures, resultSet.getLong("expires_at"));
+            } catch (SQLException exception) {
+                throw new RuntimeException(exception);
+            }
+        }, BinaryUUID.toBytes(uuid), System.currentTimeMillis());
+    }
+
+    @Override
+    public void saveUUID(String nameKey, CacheEntry<UUID> entry) {
+        if (nameKey.length() > MAX_NAME_KEY_LENGTH) return;
+        this.save(UPSERT_UUID_SQL, nameKey, entry.isNegative() ? null : BinaryUUID.toBytes(entry.getValue()), entry.getExpiresAt());
+    }
+
+    @Override
+    public void saveName(UUID uuid, CacheEntry<String> entry) {
+        this.save(UPSERT_NAME_SQL, BinaryUUID.toBytes(uuid), entry.getValue(), entry.getExpiresAt());
+    }
+
+    @Override
+    public void saveTextures(UUID uuid, CacheEntry<SkinFetcher.SkinData> entry) {
+        SkinFetcher.SkinData textures = entry.getValue();
+        this.save(UPSERT_TEXTURES_SQL, BinaryUUID.toBytes(uuid), textures == null ? null : textures.getValue(),
+                textures == null ? null : textures.getSignature(), entry.getExpiresAt());
+    }
+
+    @Override
+    public CompletableFuture<Map<String, CacheEntry<UUID>>> loadRecentUUIDs(int limit) {
+        Map<String, CacheEntry<UUID>> entries = new HashMap<>();
+        return this.mySQLManager.forEachRowAsync(SELECT_RECENT_UUIDS_SQL, WARM_UP_FETCH_SIZE,
+                resultSet -> Map.entry(resultSet.getString("name_key"), new CacheEntry<>(readUUID(resultSet), resultSet.getLong("expires_at"))),
+                entry -> entries.put(entry.getKey(), entry.getValue()),
+                System.currentTimeMillis(), limit).thenApply(rows -> entries);
+    }
+
+    @Override
+    public CompletableFuture<Map<UUID, CacheEntry<String>>> loadRecentNames(int limit) {
+        Map<UUID, CacheEntry<String>> entries = new HashMap<>();
+        return this.mySQLManager.forEachRowAsync(SELECT_RECENT_NAMES_SQL, WARM_UP_FETCH_SIZE,
+                resultSet -> Map.entry(BinaryUUID.fromBytes(resultSet.getBytes("uuid")), new CacheEntry<>(resultSet.getString("name"), resultSet.getLong("expires_at"))),
+                entry -> entries.put(entry.getKey(), entry.getValue()),
+                System.currentTimeMillis(), limit).thenApply(rows -> entries);
+    }
+
+    @Override
+    public CompletableFuture<Void> prune() {
+        long now = System.currentTimeMillis();
+        return CompletableFuture.allOf(
+                this.mySQLManager.updateAsync("DELETE FROM profile_uuids WHERE expires_at <= ?", now),
+                this.mySQLManager.updateAsync("DELETE FROM profile_names WHERE expires_at <= ?", now),
+                this.mySQLManager.updateAsync("DELETE FROM profile_textures WHERE expires_at <= ?", now));
+    }
+
+    private <T> CompletableFuture<T> loadFirst(String sql, Function<ResultSet, T> mapper, Object... params) {
+        return this.mySQLManager.queryAsync(sql, mapper, params).thenApply(rows -> rows.isEmpty() ? null : rows.getFirst());
+    }
+
+    private void save(String sql, Object... params) {
+        this.mySQLManager.updateAsync(sql, params).whenComplete((unused, throwable) -> {
+            if (throwable != null) {
+                BaseAPI.getApi().getLogger().log(Level.WARNING, "Could not save profile cache entry", throwable);
+            }
+        });
+    }
+
+    private static UUID readUUID(ResultSet resultSet) throws SQLException {
+        byte[] uuid = resultSet.getBytes("uuid");
+        return uuid == null ? null : BinaryUUID.fromBytes(uuid);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.uuid;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Collects Java name lookups for a short window and resolves them together, at most {@code batchSize} names per
+ * request. A batch is sent once it is full or the window of its first name has passed, with the highest priority of
+ * its names.
+ */
+class NameBatcher {
+
+    private final int batchSize;
+    private final long windowMillis;
+    private final Executor executor;
+    private final BiFunction<List<String>, LookupPriority, CompletableFuture<Map<String, UUID>>> bulkLookup;
+
+    private final Object lock;
+    private Map<String, CompletableFuture<UUID>> pending;
+    private LookupPriority pendingPriority;
+    private boolean flushScheduled;
+
+    /**
+     * @param bulkLookup resolves lowercase names and returns the found ones keyed by lowercase name
+     */
+    NameBatcher(int batchSize, long windowMillis, Executor executor, BiFunction<List<String>, LookupPriority, CompletableFuture<Map<String, UUID>>> bulkLookup) {
+        this.batchSize = batchSize;
+        this.windowMillis = windowMillis;
+        this.executor = executor;
+        this.bulkLookup = bulkLookup;
+        this.lock = new Object();
+        this.pending = new LinkedHashMap<>();
+        this.pendingPriority = LookupPriority.BACKGROUND;
+    }
+
+    CompletableFuture<UUID> submit(String name, LookupPriority priority) {
+        String key = name.toLowerCase(Locale.ROOT);
+
+        CompletableFuture<UUID> future;
+        Map<String, CompletableFuture<UUID>> fullBatch = null;
+        LookupPriority fullBatchPriority = null;
+        boolean scheduleFlush = false;
+        synchronized (this.lock) {
+            if (priority.ordinal() < this.pendingPriority.ordinal()) {
+                this.pendingPriority = priority;
+            }
+
+            future = this.pending.get(key);
+            if (future != null) {
+                return future;
+            }
+
+            future = new CompletableFuture<>();
+            this.pending.put(key, future);
+            if (this.pending.size() >= this.batchSize) {
+                fullBatch = this.pending;
+                fullBatchPriority = this.pendingPriority;
+                this.pending = new LinkedHashMap<>();
+                this.pendingPriority = LookupPriority.BACKGROUND;
+            } else if (!this.flushScheduled) {
+                this.flushScheduled = true;
+                scheduleFlush = true;
+            }
+        }
+
+        if (fullBatch != null) {
+            this.send(fullBatch, fullBatchPriority);
+        }
+        if (scheduleFlush) {
+            CompletableFuture.delayedExecutor(this.windowMillis, TimeUnit.MILLISECONDS, this.executor).execute(this::flush);
+        }
+        return future;
+    }
+
+    private void flush() {
+        Map<String, CompletableFuture<UUID>> batch;
+        LookupPriority priority;
+        synchronized (this.lock) {
+            this.flushScheduled = false;
+            if (this.pending.isEmpty()) return;
+            batch = this.pending;
+            priority = this.pendingPriority;
+            this.pending = new LinkedHashMap<>();
+            this.pendingPriority = LookupPriority.BACKGROUND;
+        }
+        this.send(batch, priority);
+    }
+
+    private void send(Map<String, CompletableFuture<UUID>> batch, LookupPriority priority) {
+        CompletableFuture<Map<String, UUID>> lookup;
+        try {
+            lookup = this.bulkLookup.apply(new ArrayList<>(batch.keySet()), priority);
+        } catch (RuntimeException exception) {
+            lookup = CompletableFuture.failedFuture(exception);
+        }
+
+        lookup.whenComplete((found, throwable) -> batch.forEach((name, future) -> {
+            if (throwable != null) {
+                future.completeExceptionally(throwable);
+                return;
+            }
+            UUID uuid = found.get(name);
+            if (uuid != null) {
+                future.complete(uuid);
+            } else {
+                future.completeExceptionally(new ProfileLookupException("Konnte UUID für Java-Spieler nicht abrufen: unbekannter Name " + name, 404));
+            }
+        }));
+    }
+}
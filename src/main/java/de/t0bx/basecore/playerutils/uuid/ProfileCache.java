@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.uuid;
+
+import lombok.Getter;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Two-tier cache of name to UUID, UUID to name and skin texture lookups.
+ * <p>
+ * The first tier is a size-bounded LRU in memory, the optional second one an {@link IProfileStore} that survives
+ * restarts. Every entry expires, so changed names and skins are fetched again. Keys the remote APIs do not know are
+ * cached as negative entries with a shorter TTL.
+ */
+public class ProfileCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.HOURS.toMillis(6);
+    public static final long DEFAULT_NEGATIVE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    public static final long DEFAULT_TEXTURES_TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+    private final long texturesTtlMillis;
+
+    private final TtlCache<String, UUID> uuids;
+    private final TtlCache<UUID, String> names;
+    private final TtlCache<UUID, SkinFetcher.SkinData> textures;
+
+    private volatile IProfileStore store;
+
+    @Getter
+    private final AtomicLong memoryHits;
+    @Getter
+    private final AtomicLong storeHits;
+    @Getter
+    private final AtomicLong misses;
+
+    public ProfileCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_TTL_MILLIS, DEFAULT_NEGATIVE_TTL_MILLIS, DEFAULT_TEXTURES_TTL_MILLIS);
+    }
+
+    /**
+     * @param maximumSize       entries kept in memory per lookup kind
+     * @param ttlMillis         lifetime of names and UUIDs
+     * @param negativeTtlMillis lifetime of entries for unknown keys
+     * @param texturesTtlMillis lifetime of skin textures
+     */
+    public ProfileCache(int maximumSize, long ttlMillis, long negativeTtlMillis, long texturesTtlMillis) {
+        this.ttlMillis = ttlMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+        this.texturesTtlMillis = texturesTtlMillis;
+        this.uuids = new TtlCache<>(maximumSize);
+        this.names = new TtlCache<>(maximumSize);
+        this.textures = new TtlCache<>(maximumSize);
+        this.memoryHits = new AtomicLong();
+        this.storeHits = new AtomicLong();
+        this.misses = new AtomicLong();
+    }
+
+    public void setStore(IProfileStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Prunes the store and loads its longest valid names and UUIDs into memory.
+     *
+     * @return the number of entries loaded
+     */
+    public CompletableFuture<Integer> warmUp(int limit) {
+        IProfileStore store = this.store;
+        if (store == null) {
+            return CompletableFuture.completedFuture(0);
+        }
+
+        // both loads start only once the prune is done, so neither of them reads expired rows
+        return store.prune().thenCompose(unused -> store.loadRecentUUIDs(limit)
+                .thenCombine(store.loadRecentNames(limit), (uuids, names) -> {
+                    uuids.forEach(this.uuids::putIfAbsent);
+                    names.forEach(this.names::putIfAbsent);
+                    return uuids.size() + names.size();
+                }));
+    }
+
+    /**
+     * @param nameKey lowercase name, Bedrock gamertags with a leading dot
+     * @return the entry in memory or {@code null}
+     */
+    public CacheEntry<UUID> getUUIDIfPresent(String nameKey) {
+        return this.countHit(this.uuids.get(nameKey, System.currentTimeMillis()));
+    }
+
+    /**
+     * Looks the key up in memory, then in the store.
+     *
+     * @return a future completing with the entry or {@code null}
+     */
+    public CompletableFuture<CacheEntry<UUID>> getUUID(String nameKey) {
+        return this.get(this.uuids, nameKey, store -> store.loadUUID(nameKey));
+    }
+
+    /**
+     * @param uuid {@code null} if the name is unknown
+     */
+    public void putUUID(String nameKey, UUID uuid) {
+        CacheEntry<UUID> entry = this.entry(uuid, this.ttlMillis);
+        this.uuids.put(nameKey, entry);
+        IProfileStore store = this.store;
+        if (store != null) {
+            store.saveUUID(nameKey, entry);
+        }
+    }
+
+    /**
+     * @return the name in memory, Bedrock gamertags with a leading dot, or {@code null}
+     */
+    public CacheEntry<String> getNameIfPresent(UUID uuid) {
+        return this.countHit(this.names.get(uuid, System.currentTimeMillis()));
+    }
+
+    public CompletableFuture<CacheEntry<String>> getName(UUID uuid) {
+        return this.get(this.names, uuid, store -> store.loadName(uuid));
+    }
+
+    /**
+     * @param name {@code null} if the UUID is unknown, Bedrock gamertags with a leading dot
+     */
+    public void putName(UUID uuid, String name) {
+        CacheEntry<String> entry = this.entry(name, this.ttlMillis);
+        this.names.put(uuid, entry);
+        IProfileStore store = this.store;
+        if (store != null) {
+            store.saveName(uuid, entry);
+        }
+    }
+
+    public CacheEntry<SkinFetcher.SkinData> getTexturesIfPresent(UUID uuid) {
+        return this.countHit(this.textures.get(uuid, System.currentTimeMillis()));
+    }
+
+    public CompletableFuture<CacheEntry<SkinFetcher.SkinData>> getTextures(UUID uuid) {
+        return this.get(this.textures, uuid, store -> store.loadTextures(uuid));
+    }
+
+    /**
+     * @param textures {@code null} if the player has no skin
+     */
+    public void putTextures(UUID uuid, SkinFetcher.SkinData textures) {
+        CacheEntry<SkinFetcher.SkinData> entry = this.entry(textures, this.texturesTtlMillis);
+        this.textures.put(uuid, entry);
+        IProfileStore store = this.store;
+        if (store != null) {
+            store.saveTextures(uuid, entry);
+        }
+    }
+
+    public void invalidate(UUID uuid) {
+        this.names.remove(uuid);
+        this.textures.remove(uuid);
+    }
+
+    public void invalidate(String nameKey) {
+        this.uuids.remove(nameKey);
+    }
+
+    public int size() {
+        return this.uuids.size() + this.names.size() + this.textures.size();
+    }
+
+    public long getEvictions() {
+        return this.uuids.getEvictions() + this.names.getEvictions() + this.textures.getEvictions();
+    }
+
+    private <K, V> CompletableFuture<CacheEntry<V>> get(TtlCache<K, V> memory, K key, Function<IProfileStore, CompletableFuture<CacheEntry<V>>> load) {
+        CacheEntry<V> cached = memory.get(key, System.currentTimeMillis());
+        if (cached != null) {
+            this.memoryHits.incrementAndGet();
+            return CompletableFuture.completedFuture(cached);
+        }
+        IProfileStore store = this.store;
+        if (store == null) {
+            this.misses.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // an unreachable store only costs the remote lookup
+        return load.apply(store).exceptionally(throwable -> null).thenApply(stored -> {
+            if (stored == null || stored.isExpired(System.currentTimeMillis())) {
+                this.misses.incrementAndGet();
+                return null;
+            }
+            this.storeHits.incrementAndGet();
+            memory.putIfAbsent(key, stored);
+            return stored;
+        });
+    }
+
+    private <V> CacheEntry<V> countHit(CacheEntry<V> entry) {
+        if (entry != null) {
+            this.memoryHits.incrementAndGet();
+        }
+        return entry;
+    }
+
+    private <V> CacheEntry<V> entry(V value, long ttlMillis) {
+        return new CacheEntry<>(value, System.currentTimeMillis() + (value == null ? this.negativeTtlMillis : ttlMillis));
+    }
+}
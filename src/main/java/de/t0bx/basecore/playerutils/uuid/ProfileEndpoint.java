@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.uuid;
+
+import lombok.Getter;
+
+/**
+ * Remote API a profile lookup is sent to. Each endpoint has its own rate limit.
+ */
+@Getter
+public enum ProfileEndpoint {
+
+    // Mojang allows about 600 requests per 10 minutes and IP
+    MOJANG_API(10, 1.0),
+    SESSION_SERVER(10, 1.0),
+    MCPROFILE(10, 2.0);
+
+    private final int defaultBurst;
+    private final double defaultPermitsPerSecond;
+
+    ProfileEndpoint(int defaultBurst, double defaultPermitsPerSecond) {
+        this.defaultBurst = defaultBurst;
+        this.defaultPermitsPerSecond = defaultPermitsPerSecond;
+    }
+}
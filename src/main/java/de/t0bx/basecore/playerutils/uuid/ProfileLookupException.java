@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.uuid;
+
+import lombok.Getter;
+
+/**
+ * A profile endpoint answered with a status other than 200.
+ */
+@Getter
+public class ProfileLookupException extends RuntimeException {
+
+    private final int statusCode;
+
+    public ProfileLookupException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+}
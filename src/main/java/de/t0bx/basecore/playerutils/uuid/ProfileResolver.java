@@ -0,0 +1,442 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.uuid;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves names, UUIDs and profiles of Java and Bedrock players over one shared {@link HttpClient}.
+ * <p>
+ * Requests are sent without blocking a thread and reuse keep-alive and HTTP/2 connections. They go through a
+ * {@link RequestScheduler} that keeps at most {@code maxConcurrentRequests} in flight, rate limits every endpoint and
+ * sends {@link LookupPriority#INTERACTIVE} lookups first. Concurrent lookups for the same key share one request.
+ * Results, including unknown names and UUIDs, are kept in a {@link ProfileCache}.
+ */
+public class ProfileResolver {
+
+    public static final String MOJANG_API_URL = "https://api.mojang.com";
+    public static final String SESSION_SERVER_URL = "https://sessionserver.mojang.com";
+    public static final String MCPROFILE_API_URL = "https://mcprofile.io";
+
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    // the bulk endpoint takes at most 10 names and rejects the whole request if one of them is not a valid name
+    private static final int BULK_BATCH_SIZE = 10;
+    private static final long BULK_WINDOW_MILLIS = 50L;
+    private static final Pattern BULK_NAME_PATTERN = Pattern.compile("^[A-Za-z0-9_]{1,16}$");
+
+    private static ProfileResolver defaultResolver;
+
+    private final String mojangApiUrl;
+    private final String sessionServerUrl;
+    private final String mcProfileApiUrl;
+
+    private final ScheduledExecutorService executor;
+    private final HttpClient httpClient;
+
+    @Getter
+    private final RequestScheduler scheduler;
+    private final ConcurrentHashMap<String, CompletableFuture<?>> runningLookups;
+    private final NameBatcher nameBatcher;
+
+    @Getter
+    private final ProfileCache cache;
+
+    /**
+     * @param mojangApiUrl     base URL of the Mojang API, for example {@link #MOJANG_API_URL}
+     * @param sessionServerUrl base URL of the session server, for example {@link #SESSION_SERVER_URL}
+     * @param mcProfileApiUrl  base URL of the mcprofile.io API for Bedrock players, for example {@link #MCPROFILE_API_URL}
+     */
+    public ProfileResolver(String mojangApiUrl, String sessionServerUrl, String mcProfileApiUrl, int maxConcurrentRequests) {
+        this(mojangApiUrl, sessionServerUrl, mcProfileApiUrl, maxConcurrentRequests, new ProfileCache());
+    }
+
+    public ProfileResolver(String mojangApiUrl, String sessionServerUrl, String mcProfileApiUrl, int maxConcurrentRequests, ProfileCache cache) {
+        this.mojangApiUrl = mojangApiUrl;
+        this.sessionServerUrl = sessionServerUrl;
+        this.mcProfileApiUrl = mcProfileApiUrl;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "basecore-profile-http-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(this.executor)
+                .build();
+
+        this.scheduler = new RequestScheduler(maxConcurrentRequests, this.executor);
+        this.runningLookups = new ConcurrentHashMap<>();
+        this.nameBatcher = new NameBatcher(BULK_BATCH_SIZE, BULK_WINDOW_MILLIS, this.executor, this::fetchJavaUUIDs);
+        this.cache = cache;
+    }
+
+    /**
+     * @return the resolver for the public Mojang and mcprofile.io endpoints, shared by the fetchers
+     */
+    public static synchronized ProfileResolver getDefault() {
+        if (defaultResolver == null) {
+            defaultResolver = new ProfileResolver(MOJANG_API_URL, SESSION_SERVER_URL, MCPROFILE_API_URL, DEFAULT_MAX_CONCURRENT_REQUESTS);
+        }
+        return defaultResolver;
+    }
+
+    /**
+     * Replaces the shared resolver, for example with one that has a persistent cache. The previous one is shut down.
+     */
+    public static synchronized void setDefault(ProfileResolver resolver) {
+        if (defaultResolver != null && defaultResolver != resolver) {
+            defaultResolver.shutdown();
+        }
+        defaultResolver = resolver;
+    }
+
+    public static synchronized void shutdownDefault() {
+        if (defaultResolver != null) {
+            defaultResolver.shutdown();
+            defaultResolver = null;
+        }
+    }
+
+    public CompletableFuture<UUID> resolveUUID(String name) {
+        return this.resolveUUID(name, LookupPriority.INTERACTIVE);
+    }
+
+    /**
+     * Resolves the UUID of a player name. Names starting with a dot are Bedrock gamertags. Java names that are not
+     * cached are collected for a short window and resolved in batches of up to 10 over the bulk profiles endpoint.
+     */
+    public CompletableFuture<UUID> resolveUUID(String name, LookupPriority priority) {
+        if (name == null || name.isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Name darf nicht null oder leer sein"));
+        }
+
+        String key = name.toLowerCase(Locale.ROOT);
+        CacheEntry<UUID> cached = this.cache.getUUIDIfPresent(key);
+        if (cached != null) {
+            return cachedValue(cached, "Konnte UUID nicht abrufen: unbekannter Name " + name);
+        }
+
+        boolean bedrock = name.startsWith(".");
+        String actualName = bedrock ? name.substring(1) : name;
+        return this.coalesce("name:" + key, () -> this.cache.getUUID(key).thenCompose(stored -> {
+            if (stored != null) {
+                return cachedValue(stored, "Konnte UUID nicht abrufen: unbekannter Name " + name);
+            }
+
+            CompletableFuture<UUID> lookup = bedrock ? this.fetchBedrockUUID(actualName, priority)
+                    : BULK_NAME_PATTERN.matcher(actualName).matches() ? this.nameBatcher.submit(actualName, priority)
+                    : this.fetchJavaUUID(actualName, priority);
+            return lookup.whenComplete((uuid, throwable) -> {
+                if (throwable != null && isUnknownProfile(throwable)) {
+                    this.cache.putUUID(key, null);
+                }
+            });
+        }));
+    }
+
+    public CompletableFuture<String> resolveName(UUID uuid) {
+        return this.resolveName(uuid, LookupPriority.INTERACTIVE);
+    }
+
+    /**
+     * Resolves the name of a player. Bedrock names are returned with a leading dot. Floodgate UUIDs go straight to
+     * the Bedrock API, other UUIDs only when the session server does not know them.
+     */
+    public CompletableFuture<String> resolveName(UUID uuid, LookupPriority priority) {
+        if (uuid == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("UUID darf nicht null sein"));
+        }
+
+        CacheEntry<String> cached = this.cache.getNameIfPresent(uuid);
+        if (cached != null) {
+            return cachedValue(cached, "Konnte Namen nicht abrufen: unbekannte UUID " + uuid);
+        }
+
+        return this.coalesce("uuid:" + uuid, () -> this.cache.getName(uuid).thenCompose(stored -> {
+            if (stored != null) {
+                return cachedValue(stored, "Konnte Namen nicht abrufen: unbekannte UUID " + uuid);
+            }
+
+            // a throttled or failed session server says nothing about the player, only an unknown UUID may be a Bedrock one
+            CompletableFuture<String> lookup = uuid.getMostSignificantBits() == 0L ? this.fetchBedrockName(uuid, priority)
+                    : this.fetchJavaName(uuid, priority).exceptionallyCompose(throwable ->
+                    isUnknownProfile(throwable) ? this.fetchBedrockName(uuid, priority) : CompletableFuture.failedFuture(throwable));
+            return lookup.whenComplete((name, throwable) -> {
+                if (throwable != null && isUnknownProfile(throwable)) {
+                    this.cache.putName(uuid, null);
+                }
+            });
+        }));
+    }
+
+    public CompletableFuture<SkinFetcher.SkinData> resolveTextures(UUID uuid) {
+        return this.resolveTextures(uuid, LookupPriority.INTERACTIVE);
+    }
+
+    /**
+     * Resolves the signed skin textures of a Java player.
+     */
+    public CompletableFuture<SkinFetcher.SkinData> resolveTextures(UUID uuid, LookupPriority priority) {
+        if (uuid == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("UUID darf nicht null sein"));
+        }
+
+        CacheEntry<SkinFetcher.SkinData> cached = this.cache.getTexturesIfPresent(uuid);
+        if (cached != null) {
+            return cachedValue(cached, "Kein Skin für " + uuid);
+        }
+
+        return this.coalesce("textures:" + uuid, () -> this.cache.getTextures(uuid).thenCompose(stored -> {
+            if (stored != null) {
+                return cachedValue(stored, "Kein Skin für " + uuid);
+            }
+
+            return this.fetchProfile(uuid, priority).thenApply(profile -> {
+                SkinFetcher.SkinData textures = parseTextures(profile);
+                if (textures == null) {
+                    throw new ProfileLookupException("Kein Skin für " + uuid, 404);
+                }
+                this.cache.putTextures(uuid, textures);
+                return textures;
+            }).whenComplete((textures, throwable) -> {
+                if (throwable != null && isUnknownProfile(throwable)) {
+                    this.cache.putTextures(uuid, null);
+                }
+            });
+        }));
+    }
+
+    public CompletableFuture<JsonObject> fetchProfile(UUID uuid) {
+        return this.fetchProfile(uuid, LookupPriority.INTERACTIVE);
+    }
+
+    /**
+     * Fetches the signed session profile of a Java player, including the {@code textures} property.
+     */
+    public CompletableFuture<JsonObject> fetchProfile(UUID uuid, LookupPriority priority) {
+        return this.coalesce("profile:" + uuid, () -> this.get(ProfileEndpoint.SESSION_SERVER, priority,
+                this.sessionServerUrl + "/session/minecraft/profile/" + undashed(uuid) + "?unsigned=false", "Konnte Profil nicht abrufen"));
+    }
+
+    public int getInFlightRequests() {
+        return this.scheduler.getInFlight();
+    }
+
+    public int getPendingRequests() {
+        return this.scheduler.getQueued();
+    }
+
+    public void shutdown() {
+        this.scheduler.shutdown();
+        this.httpClient.shutdownNow();
+        this.executor.shutdownNow();
+    }
+
+    private CompletableFuture<UUID> fetchJavaUUID(String name, LookupPriority priority) {
+        return this.get(ProfileEndpoint.MOJANG_API, priority, this.mojangApiUrl + "/users/profiles/minecraft/" + encode(name), "Konnte UUID für Java-Spieler nicht abrufen")
+                .thenApply(response -> {
+                    UUID uuid = parseUndashed(response.get("id").getAsString());
+                    this.cache.putUUID(name.toLowerCase(Locale.ROOT), uuid);
+                    this.cache.putUUID("." + name.toLowerCase(Locale.ROOT), uuid);
+                    return uuid;
+                });
+    }
+
+    /**
+     * @return the UUIDs of the names that exist, keyed by lowercase name
+     */
+    private CompletableFuture<Map<String, UUID>> fetchJavaUUIDs(List<String> names, LookupPriority priority) {
+        JsonArray body = new JsonArray();
+        names.forEach(body::add);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(this.mojangApiUrl + "/profiles/minecraft"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+
+        return this.send(ProfileEndpoint.MOJANG_API, priority, request, "Konnte UUIDs für Java-Spieler nicht abrufen").thenApply(response -> {
+            Map<String, UUID> found = new HashMap<>();
+            for (JsonElement element : JsonParser.parseString(response).getAsJsonArray()) {
+                JsonObject profile = element.getAsJsonObject();
+                String name = profile.get("name").getAsString().toLowerCase(Locale.ROOT);
+                UUID uuid = parseUndashed(profile.get("id").getAsString());
+                this.cache.putUUID(name, uuid);
+                this.cache.putUUID("." + name, uuid);
+                found.put(name, uuid);
+            }
+            return found;
+        });
+    }
+
+    private CompletableFuture<UUID> fetchBedrockUUID(String name, LookupPriority priority) {
+        return this.get(ProfileEndpoint.MCPROFILE, priority, this.mcProfileApiUrl + "/api/v1/bedrock/gamertag/" + encode(name), "Konnte UUID für Bedrock-Spieler nicht abrufen")
+                .thenApply(response -> {
+                    UUID uuid = UUID.fromString(response.get("floodgateuid").getAsString());
+                    this.cache.putUUID("." + name.toLowerCase(Locale.ROOT), uuid);
+                    return uuid;
+                });
+    }
+
+    private CompletableFuture<String> fetchJavaName(UUID uuid, LookupPriority priority) {
+        return this.get(ProfileEndpoint.SESSION_SERVER, priority, this.sessionServerUrl + "/session/minecraft/profile/" + undashed(uuid), "Konnte Namen für Java-Spieler nicht abrufen")
+                .thenApply(response -> {
+                    String name = response.get("name").getAsString();
+                    this.cache.putName(uuid, name);
+                    return name;
+                });
+    }
+
+    private CompletableFuture<String> fetchBedrockName(UUID uuid, LookupPriority priority) {
+        return this.get(ProfileEndpoint.MCPROFILE, priority, this.mcProfileApiUrl + "/api/v1/bedrock/fuid/" + uuid, "Konnte Namen für Bedrock-Spieler nicht abrufen")
+                .thenApply(response -> {
+                    String name = response.get("gamertag").getAsString();
+                    this.cache.putName(uuid, "." + name);
+                    return "." + name;
+                });
+    }
+
+    /**
+     * Sends a GET request and parses the JSON object of a 200 response.
+     */
+    private CompletableFuture<JsonObject> get(ProfileEndpoint endpoint, LookupPriority priority, String url, String errorMessage) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        return this.send(endpoint, priority, request, errorMessage).thenApply(body -> JsonParser.parseString(body).getAsJsonObject());
+    }
+
+    /**
+     * Sends the request through the scheduler.
+     *
+     * @return the body of a 200 response
+     */
+    private CompletableFuture<String> send(ProfileEndpoint endpoint, LookupPriority priority, HttpRequest request, String errorMessage) {
+        return this.scheduler.submit(endpoint, priority, () -> this.httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new ProfileLookupException(errorMessage + ": HTTP " + response.statusCode(), response.statusCode());
+                    }
+                    return response.body();
+                });
+    }
+
+    /**
+     * @return whether the session server answered that it does not know the profile
+     */
+    private static boolean isUnknownProfile(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        return cause instanceof ProfileLookupException exception && (exception.getStatusCode() == 204 || exception.getStatusCode() == 404);
+    }
+
+    /**
+     * Joins a running lookup for the key or starts one. Every caller gets its own copy, so completing or cancelling
+     * it does not affect the others.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> coalesce(String key, Supplier<CompletableFuture<T>> lookup) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<T> running = (CompletableFuture<T>) this.runningLookups.putIfAbsent(key, future);
+        if (running != null) {
+            return running.copy();
+        }
+
+        CompletableFuture<T> started;
+        try {
+            started = lookup.get();
+        } catch (RuntimeException exception) {
+            started = CompletableFuture.failedFuture(exception);
+        }
+        started.whenComplete((value, throwable) -> {
+            this.runningLookups.remove(key, future);
+            if (throwable != null) {
+                future.completeExceptionally(throwable);
+            } else {
+                future.complete(value);
+            }
+        });
+        return future.copy();
+    }
+
+    private static <T> CompletableFuture<T> cachedValue(CacheEntry<T> entry, String unknownMessage) {
+        return entry.isNegative()
+                ? CompletableFuture.failedFuture(new ProfileLookupException(unknownMessage, 404))
+                : CompletableFuture.completedFuture(entry.getValue());
+    }
+
+    /**
+     * @return the {@code textures} property of a session profile or {@code null} if it has none
+     */
+    private static SkinFetcher.SkinData parseTextures(JsonObject profile) {
+        JsonArray properties = profile.getAsJsonArray("properties");
+        if (properties == null) return null;
+        for (JsonElement element : properties) {
+            JsonObject property = element.getAsJsonObject();
+            if (property.get("name").getAsString().equals("textures")) {
+                return new SkinFetcher.SkinData(property.get("value").getAsString(),
+                        property.has("signature") ? property.get("signature").getAsString() : null);
+            }
+        }
+        return null;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private static String undashed(UUID uuid) {
+        return uuid.toString().replace("-", "");
+    }
+
+    static UUID parseUndashed(String id) {
+        if (id.length() != 32) {
+            return UUID.fromString(id);
+        }
+        return new UUID(Long.parseUnsignedLong(id.substring(0, 16), 16), Long.parseUnsignedLong(id.substring(16), 16));
+    }
+}
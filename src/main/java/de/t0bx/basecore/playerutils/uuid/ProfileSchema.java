@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.uuid;
+
+import de.t0bx.basecore.database.SchemaMigrator;
+
+/**
+ * Schema history of the persistent {@link ProfileCache} tables.
+ */
+public final class ProfileSchema {
+
+    public static final String SCOPE = "profiles";
+
+    private ProfileSchema() {
+    }
+
+    public static void registerMigrations(SchemaMigrator migrator) {
+        migrator.register(1, "create profile cache tables", context -> {
+            context.update("CREATE TABLE IF NOT EXISTS profile_uuids(name_key VARCHAR(64) NOT NULL PRIMARY KEY, uuid BINARY(16) NULL, "
+                    + "expires_at BIGINT NOT NULL, INDEX idx_profile_uuids_expires_at(expires_at))");
+            context.update("CREATE TABLE IF NOT EXISTS profile_names(uuid BINARY(16) NOT NULL PRIMARY KEY, name VARCHAR(64) NULL, "
+                    + "expires_at BIGINT NOT NULL, INDEX idx_profile_names_expires_at(expires_at))");
+            context.update("CREATE TABLE IF NOT EXISTS profile_textures(uuid BINARY(16) NOT NULL PRIMARY KEY, skin_value TEXT NULL, skin_signature TEXT NULL, "
+                    + "expires_at BIGINT NOT NULL, INDEX idx_profile_textures_expires_at(expires_at))");
+        });
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.uuid;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Sends profile requests within a global in-flight limit and a token bucket per {@link ProfileEndpoint}.
+ * <p>
+ * Lookups wait in one lane per endpoint and {@link LookupPriority}. A 429 response pauses its endpoint for the
+ * {@code Retry-After} time, or an exponential backoff if the header is missing, and queues the request again. A lookup
+ * that cannot be sent within the wait limit of its lane fails with status 429 instead of waiting longer, and a full
+ * lane rejects new lookups right away, so latency stays bounded while an endpoint is throttled.
+ */
+public class RequestScheduler {
+
+    public static final int THROTTLED = 429;
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BASE_BACKOFF_MILLIS = 5_000L;
+    private static final long MAX_BACKOFF_MILLIS = 300_000L;
+
+    private final int maxConcurrentRequests;
+    private final ScheduledExecutorService executor;
+
+    private final Object lock;
+    private final Map<ProfileEndpoint, EndpointState> endpoints;
+    private int inFlight;
+    private long nextWakeUp;
+    private boolean shutdown;
+
+    public RequestScheduler(int maxConcurrentRequests, ScheduledExecutorService executor) {
+        this.maxConcurrentRequests = Math.max(1, maxConcurrentRequests);
+        this.executor = executor;
+        this.lock = new Object();
+        this.endpoints = new EnumMap<>(ProfileEndpoint.class);
+        this.nextWakeUp = Long.MAX_VALUE;
+
+        long now = System.nanoTime();
+        for (ProfileEndpoint endpoint : ProfileEndpoint.values()) {
+            this.endpoints.put(endpoint, new EndpointState(new TokenBucket(endpoint.getDefaultBurst(), endpoint.getDefaultPermitsPerSecond(), now)));
+        }
+    }
+
+    /**
+     * Replaces the token bucket of the endpoint.
+     *
+     * @param burst requests that may be sent at once after the endpoint was idle
+     */
+    public void setRateLimit(ProfileEndpoint endpoint, int burst, double permitsPerSecond) {
+        synchronized (this.lock) {
+            this.endpoints.get(endpoint).bucket = new TokenBucket(burst, permitsPerSecond, System.nanoTime());
+        }
+        this.dispatch();
+    }
+
+    /**
+     * Queues a request. The returned future completes with the first response that is not throttled.
+     */
+    public CompletableFuture<HttpResponse<String>> submit(ProfileEndpoint endpoint, LookupPriority priority,
+                                                          Supplier<CompletableFuture<HttpResponse<String>>> request) {
+        Ticket ticket = new Ticket(endpoint, priority, request, System.nanoTime());
+        synchronized (this.lock) {
+            if (this.shutdown) {
+                return CompletableFuture.failedFuture(new RejectedExecutionException("ProfileResolver wurde beendet"));
+            }
+
+            EndpointState state = this.endpoints.get(endpoint);
+            ArrayDeque<Ticket> lane = state.lanes[priority.ordinal()];
+            if (lane.size() >= priority.getQueueCapacity()) {
+                state.rejected++;
+                return CompletableFuture.failedFuture(new ProfileLookupException("Zu viele wartende Anfragen an " + endpoint, THROTTLED));
+            }
+            lane.addLast(ticket);
+        }
+        this.dispatch();
+        return ticket.result;
+    }
+
+    public int getInFlight() {
+        synchronized (this.lock) {
+            return this.inFlight;
+        }
+    }
+
+    public int getQueued() {
+        synchronized (this.lock) {
+            int queued = 0;
+            for (EndpointState state : this.endpoints.values()) {
+                for (ArrayDeque<Ticket> lane : state.lanes) {
+                    queued += lane.size();
+                }
+            }
+            return queued;
+        }
+    }
+
+    public RequestSchedulerSnapshot snapshot() {
+        synchronized (this.lock) {
+            long now = System.nanoTime();
+            List<RequestSchedulerSnapshot.EndpointStats> stats = new ArrayList<>(this.endpoints.size());
+            this.endpoints.forEach((endpoint, state) -> stats.add(new RequestSchedulerSnapshot.EndpointStats(endpoint,
+                    state.lanes[LookupPriority.INTERACTIVE.ordinal()].size(),
+                    state.lanes[LookupPriority.BACKGROUND.ordinal()].size(),
+                    state.bucket.available(now),
+                    TimeUnit.NANOSECONDS.toMillis(Math.max(0L, state.throttledUntil - now)),
+                    state.sent, state.throttled, state.retried, state.rejected, state.expired)));
+            return new RequestSchedulerSnapshot(System.currentTimeMillis(), this.inFlight, stats);
+        }
+    }
+
+    /**
+     * Fails every queued lookup. Requests in flight are left to the http client.
+     */
+    public void shutdown() {
+        List<Ticket> dropped = new ArrayList<>();
+        synchronized (this.lock) {
+            this.shutdown = true;
+            for (EndpointState state : this.endpoints.values()) {
+                for (ArrayDeque<Ticket> lane : state.lanes) {
+                    dropped.addAll(lane);
+                    lane.clear();
+                }
+            }
+        }
+        dropped.forEach(ticket -> ticket.result.completeExceptionally(new RejectedExecutionException("ProfileResolver wurde beendet")));
+    }
+
+    private void dispatch() {
+        List<Ticket> ready = new ArrayList<>();
+        List<Ticket> expired = new ArrayList<>();
+        synchronized (this.lock) {
+            if (this.shutdown) return;
+
+            long now = System.nanoTime();
+            long wakeUp = Long.MAX_VALUE;
+            for (EndpointState state : this.endpoints.values()) {
+                state.expire(now, expired);
+            }
+
+            // interactive lanes of every endpoint first, so a busy endpoint cannot hold back another one's commands
+            for (LookupPriority priority : LookupPriority.values()) {
+                for (EndpointState state : this.endpoints.values()) {
+                    ArrayDeque<Ticket> lane = state.lanes[priority.ordinal()];
+                    if (lane.isEmpty()) continue;
+                    if (now < state.throttledUntil) {
+                        wakeUp = Math.min(wakeUp, state.throttledUntil);
+                        continue;
+                    }
+
+                    while (!lane.isEmpty() && this.inFlight < this.maxConcurrentRequests) {
+                        long wait = state.bucket.nanosUntilAvailable(now);
+                        if (wait > 0L) {
+                            wakeUp = Math.min(wakeUp, now + wait);
+                            break;
+                        }
+                        state.bucket.take();
+                        state.sent++;
+                        this.inFlight++;
+                        ready.add(lane.pollFirst());
+                    }
+                }
+            }
+
+            for (EndpointState state : this.endpoints.values()) {
+                for (ArrayDeque<Ticket> lane : state.lanes) {
+                    Ticket head = lane.peekFirst();
+                    if (head != null) {
+                        wakeUp = Math.min(wakeUp, head.deadline);
+                    }
+                }
+            }
+            this.scheduleWakeUp(now, wakeUp);
+        }
+
+        expired.forEach(ticket -> ticket.result.completeExceptionally(
+                new ProfileLookupException("Anfrage an " + ticket.endpoint + " konnte nicht innerhalb der Wartezeit gesendet werden", THROTTLED)));
+        ready.forEach(this::send);
+    }
+
+    // callers hold the lock
+    private void scheduleWakeUp(long now, long wakeUp) {
+        if (wakeUp == Long.MAX_VALUE || wakeUp >= this.nextWakeUp) return;
+
+        this.nextWakeUp = wakeUp;
+        try {
+            this.executor.schedule(() -> {
+                synchronized (this.lock) {
+                    if (this.nextWakeUp <= System.nanoTime()) {
+                        this.nextWakeUp = Long.MAX_VALUE;
+                    }
+                }
+                this.dispatch();
+            }, Math.max(0L, wakeUp - now), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException ignored) {
+            // the resolver is shutting down
+        }
+    }
+
+    private void send(Ticket ticket) {
+        ticket.attempts++;
+        CompletableFuture<HttpResponse<String>> sent;
+        try {
+            sent = ticket.request.get();
+        } catch (RuntimeException exception) {
+            sent = CompletableFuture.failedFuture(exception);
+        }
+
+        sent.whenComplete((response, throwable) -> {
+            boolean requeued = false;
+            synchronized (this.lock) {
+                this.inFlight--;
+                EndpointState state = this.endpoints.get(ticket.endpoint);
+                if (response != null && response.statusCode() == THROTTLED) {
+                    long now = System.nanoTime();
+                    long pause = retryAfterMillis(response).orElse(Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << Math.min(state.throttleStreak, 16)));
+                    state.throttled++;
+                    state.throttleStreak++;
+                    state.throttledUntil = Math.max(state.throttledUntil, now + TimeUnit.MILLISECONDS.toNanos(pause));
+                    state.bucket.drain(now);
+
+                    if (ticket.attempts < MAX_ATTEMPTS && !this.shutdown) {
+                        state.lanes[ticket.priority.ordinal()].addFirst(ticket);
+                        state.retried++;
+                        requeued = true;
+                    }
+                } else if (response != null) {
+                    state.throttleStreak = 0;
+                }
+            }
+
+            if (!requeued) {
+                if (throwable != null) {
+                    ticket.result.completeExceptionally(throwable);
+                } else {
+                    ticket.result.complete(response);
+                }
+            }
+            this.dispatch();
+        });
+    }
+
+    /**
+     * @return the pause requested by the {@code Retry-After} header, given in seconds or as an http date
+     */
+    static Optional<Long> retryAfterMillis(HttpResponse<?> response) {
+        return response.headers().firstValue("Retry-After").map(String::trim).flatMap(value -> {
+            try {
+                return Optional.of(TimeUnit.SECONDS.toMillis(Long.parseLong(value)));
+            } catch (NumberFormatException ignored) {
+            }
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Optional.of(Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis());
+            } catch (DateTimeParseException ignored) {
+                return Optional.empty();
+            }
+        }).map(millis -> Math.clamp(millis, 0L, MAX_BACKOFF_MILLIS));
+    }
+
+    private static class EndpointState {
+
+        private final ArrayDeque<Ticket>[] lanes;
+        private TokenBucket bucket;
+        private long throttledUntil;
+        private int throttleStreak;
+
+        private long sent;
+        private long throttled;
+        private long retried;
+        private long rejected;
+        private long expired;
+
+        @SuppressWarnings("unchecked")
+        EndpointState(TokenBucket bucket) {
+            this.bucket = bucket;
+            this.lanes = new ArrayDeque[LookupPriority.values().length];
+            for (int i = 0; i < this.lanes.length; i++) {
+                this.lanes[i] = new ArrayDeque<>();
+            }
+        }
+
+        /**
+         * Removes lookups that reached their deadline or would reach it before the endpoint may be called again.
+         * Lanes are ordered by deadline, requeued lookups go to the front with an earlier one.
+         */
+        void expire(long now, List<Ticket> expired) {
+            long sendableAt = Math.max(now, this.throttledUntil);
+            for (ArrayDeque<Ticket> lane : this.lanes) {
+                while (!lane.isEmpty() && lane.peekFirst().deadline <= sendableAt) {
+                    expired.add(lane.pollFirst());
+                    this.expired++;
+                }
+            }
+        }
+    }
+
+    private static class Ticket {
+
+        private final ProfileEndpoint endpoint;
+        private final LookupPriority priority;
+        private final Supplier<CompletableFuture<HttpResponse<String>>> request;
+        private final CompletableFuture<HttpResponse<String>> result;
+        private final long deadline;
+        private int attempts;
+
+        Ticket(ProfileEndpoint endpoint, LookupPriority priority, Supplier<CompletableFuture<HttpResponse<String>>> request, long now) {
+            this.endpoint = endpoint;
+            this.priority = priority;
+            this.request = request;
+            this.result = new CompletableFuture<>();
+            this.deadline = now + TimeUnit.MILLISECONDS.toNanos(priority.getMaxQueueMillis());
+        }
+    }
+}
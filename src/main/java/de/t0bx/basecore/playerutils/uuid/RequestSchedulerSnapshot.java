@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.uuid;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class RequestSchedulerSnapshot {
+
+    private final long timestamp;
+
+    /**
+     * Requests currently sent and not yet answered, over all endpoints.
+     */
+    private final int inFlight;
+
+    private final List<EndpointStats> endpoints;
+
+    RequestSchedulerSnapshot(long timestamp, int inFlight, List<EndpointStats> endpoints) {
+        this.timestamp = timestamp;
+        this.inFlight = inFlight;
+        this.endpoints = endpoints;
+    }
+
+    public int getQueued() {
+        return this.endpoints.stream().mapToInt(stats -> stats.interactiveQueued + stats.backgroundQueued).sum();
+    }
+
+    @Getter
+    public static class EndpointStats {
+
+        private final ProfileEndpoint endpoint;
+        private final int interactiveQueued;
+        private final int backgroundQueued;
+        private final double availableTokens;
+
+        /**
+         * Time left until a {@code Retry-After} of the endpoint has passed, 0 if it is not throttled.
+         */
+        private final long throttledMillis;
+
+        private final long sent;
+
+        /**
+         * Responses with status 429.
+         */
+        private final long throttled;
+
+        /**
+         * Throttled requests that were queued again.
+         */
+        private final long retried;
+
+        /**
+         * Lookups rejected because their lane was full.
+         */
+        private final long rejected;
+
+        /**
+         * Lookups that failed because they could not be sent within the wait limit of their lane.
+         */
+        private final long expired;
+
+        EndpointStats(ProfileEndpoint endpoint, int interactiveQueued, int backgroundQueued, double availableTokens,
+                      long throttledMillis, long sent, long throttled, long retried, long rejected, long expired) {
+            this.endpoint = endpoint;
+            this.interactiveQueued = interactiveQueued;
+            this.backgroundQueued = backgroundQueued;
+            this.availableTokens = availableTokens;
+            this.throttledMillis = throttledMillis;
+            this.sent = sent;
+            this.throttled = throttled;
+            this.retried = retried;
+            this.rejected = rejected;
+            this.expired = expired;
+        }
+    }
+}
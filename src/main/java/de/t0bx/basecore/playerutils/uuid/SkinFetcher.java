@@ -10,82 +10,81 @@
 
 package de.t0bx.basecore.playerutils.uuid;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collection;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 import java.util.logging.Level;
 
+/**
+ * Fetches skin textures by player name or UUID. Names and textures are cached by the {@link ProfileCache} of the
+ * default resolver, which is bounded and shared by all threads. Concurrent fetches for the same player join the
+ * running lookups of the resolver.
+ */
 public class SkinFetcher {
     private final JavaPlugin plugin;
-    private final Map<String, SkinData> skinCache = new HashMap<>();
 
     public SkinFetcher(JavaPlugin plugin) {
         this.plugin = plugin;
     }
 
-    public void fetchSkin(String playerName, BiConsumer<String, String> callback) {
-        if (skinCache.containsKey(playerName.toLowerCase())) {
-            SkinData cachedSkin = skinCache.get(playerName.toLowerCase());
-            callback.accept(cachedSkin.getValue(), cachedSkin.getSignature());
-            return;
-        }
-
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                String uuidUrl = "https://api.mojang.com/users/profiles/minecraft/" + playerName;
-                String uuidResponse = makeHttpRequest(uuidUrl);
-
-                if (uuidResponse == null || uuidResponse.isEmpty()) {
-                    syncCallback(callback, null, null);
-                    return;
-                }
-
-                JsonObject uuidObject = JsonParser.parseString(uuidResponse).getAsJsonObject();
-                String uuidStr = uuidObject.get("id").getAsString();
-
-                UUID uuid = UUID.fromString(
-                        uuidStr.replaceFirst(
-                                "(\\p{XDigit}{8})(\\p{XDigit}{4})(\\p{XDigit}{4})(\\p{XDigit}{4})(\\p{XDigit}+)",
-                                "$1-$2-$3-$4-$5"
-                        )
-                );
+    public CompletableFuture<SkinData> fetchSkin(String playerName) {
+        return fetchSkin(playerName, LookupPriority.INTERACTIVE);
+    }
 
-                String profileUrl = "https://sessionserver.mojang.com/session/minecraft/profile/" + uuid.toString().replace("-", "") + "?unsigned=false";
-                String profileResponse = makeHttpRequest(profileUrl);
+    public CompletableFuture<SkinData> fetchSkin(String playerName, LookupPriority priority) {
+        if (playerName == null || playerName.isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Name darf nicht null oder leer sein"));
+        }
 
-                if (profileResponse == null || profileResponse.isEmpty()) {
-                    syncCallback(callback, null, null);
-                    return;
-                }
+        ProfileResolver resolver = ProfileResolver.getDefault();
+        return resolver.resolveUUID(playerName, priority).thenCompose(uuid -> resolver.resolveTextures(uuid, priority));
+    }
 
-                JsonObject profileObject = JsonParser.parseString(profileResponse).getAsJsonObject();
-                JsonObject texturesProperty = profileObject
-                        .getAsJsonArray("properties")
-                        .get(0)
-                        .getAsJsonObject();
+    public CompletableFuture<SkinData> fetchSkin(UUID uuid) {
+        return fetchSkin(uuid, LookupPriority.INTERACTIVE);
+    }
 
-                String skinValue = texturesProperty.get("value").getAsString();
-                String skinSignature = texturesProperty.get("signature").getAsString();
+    public CompletableFuture<SkinData> fetchSkin(UUID uuid, LookupPriority priority) {
+        if (uuid == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("UUID darf nicht null sein"));
+        }
+        return ProfileResolver.getDefault().resolveTextures(uuid, priority);
+    }
 
-                skinCache.put(playerName.toLowerCase(), new SkinData(skinValue, skinSignature));
+    /**
+     * Loads the skins of many players in the background, for example for NPCs before they are shown. Unknown players
+     * and players without a skin are skipped.
+     */
+    public CompletableFuture<Void> prefetch(Collection<String> playerNames) {
+        return CompletableFuture.allOf(playerNames.stream()
+                .map(name -> fetchSkin(name, LookupPriority.BACKGROUND).exceptionally(throwable -> null))
+                .toArray(CompletableFuture[]::new));
+    }
 
-                syncCallback(callback, skinValue, skinSignature);
+    /**
+     * Calls back on the main thread with {@code null} values if the skin could not be fetched. Cached skins requested
+     * from the main thread are passed back right away.
+     */
+    public void fetchSkin(String playerName, BiConsumer<String, String> callback) {
+        CompletableFuture<SkinData> future = fetchSkin(playerName);
+        if (future.isDone() && !future.isCompletedExceptionally() && Bukkit.isPrimaryThread()) {
+            SkinData skinData = future.join();
+            callback.accept(skinData.getValue(), skinData.getSignature());
+            return;
+        }
 
-            } catch (Exception e) {
-                plugin.getLogger().log(Level.SEVERE, "Fehler beim Abrufen des Skins für " + playerName, e);
+        future.whenComplete((skinData, throwable) -> {
+            if (throwable != null) {
+                plugin.getLogger().log(Level.SEVERE, "Fehler beim Abrufen des Skins für " + playerName, throwable);
                 syncCallback(callback, null, null);
+                return;
             }
+
+            syncCallback(callback, skinData.getValue(), skinData.getSignature());
         });
     }
 
@@ -93,32 +92,7 @@ public class SkinFetcher {
         Bukkit.getScheduler().runTask(plugin, () -> callback.accept(value, signature));
     }
 
-    private String makeHttpRequest(String urlString) throws IOException {
-        URL url = new URL(urlString);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        connection.setRequestMethod("GET");
-        connection.setConnectTimeout(5000);
-        connection.setReadTimeout(5000);
-
-        int responseCode = connection.getResponseCode();
-
-        if (responseCode == HttpURLConnection.HTTP_OK) {
-            BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-            StringBuilder response = new StringBuilder();
-            String line;
-
-            while ((line = reader.readLine()) != null) {
-                response.append(line);
-            }
-
-            reader.close();
-            return response.toString();
-        }
-
-        return null;
-    }
-
-    public class SkinData {
+    public static class SkinData {
         private final String value;
         private final String signature;
 
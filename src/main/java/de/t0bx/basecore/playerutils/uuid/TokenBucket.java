@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.uuid;
+
+/**
+ * Token bucket that refills continuously. Not thread-safe, callers synchronize.
+ */
+class TokenBucket {
+
+    private final int capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(int capacity, double permitsPerSecond, long now) {
+        this.capacity = Math.max(1, capacity);
+        this.tokensPerNano = permitsPerSecond / 1_000_000_000D;
+        this.tokens = this.capacity;
+        this.refilledAt = now;
+    }
+
+    /**
+     * @return 0 if a token is available, otherwise the nanoseconds until the next one is
+     */
+    long nanosUntilAvailable(long now) {
+        this.refill(now);
+        if (this.tokens >= 1D) return 0L;
+        return (long) Math.ceil((1D - this.tokens) / this.tokensPerNano);
+    }
+
+    void take() {
+        this.tokens -= 1D;
+    }
+
+    /**
+     * Drops the remaining tokens, so requests after a throttle start slowly again.
+     */
+    void drain(long now) {
+        this.refill(now);
+        this.tokens = Math.min(this.tokens, 0D);
+    }
+
+    double available(long now) {
+        this.refill(now);
+        return this.tokens;
+    }
+
+    private void refill(long now) {
+        if (now > this.refilledAt) {
+            this.tokens = Math.min(this.capacity, this.tokens + (now - this.refilledAt) * this.tokensPerNano);
+            this.refilledAt = now;
+        }
+    }
+}
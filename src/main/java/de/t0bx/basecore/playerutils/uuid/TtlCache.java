@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.uuid;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded LRU map of {@link CacheEntry entries}. Expired entries are dropped when they are read.
+ */
+class TtlCache<K, V> {
+
+    private final int maximumSize;
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+
+    private long evictions;
+
+    TtlCache(int maximumSize) {
+        this.maximumSize = Math.max(1, maximumSize);
+        this.entries = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (this.size() <= TtlCache.this.maximumSize) return false;
+                TtlCache.this.evictions++;
+                return true;
+            }
+        };
+    }
+
+    synchronized CacheEntry<V> get(K key, long now) {
+        CacheEntry<V> entry = this.entries.get(key);
+        if (entry == null) return null;
+        if (entry.isExpired(now)) {
+            this.entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    synchronized void put(K key, CacheEntry<V> entry) {
+        this.entries.put(key, entry);
+    }
+
+    /**
+     * Keeps a newer entry that was put while the given one was loaded.
+     */
+    synchronized void putIfAbsent(K key, CacheEntry<V> entry) {
+        this.entries.putIfAbsent(key, entry);
+    }
+
+    synchronized void remove(K key) {
+        this.entries.remove(key);
+    }
+
+    synchronized int size() {
+        return this.entries.size();
+    }
+
+    synchronized long getEvictions() {
+        return this.evictions;
+    }
+}
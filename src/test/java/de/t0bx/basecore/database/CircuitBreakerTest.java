@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+package de.t0bx.basecore.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_MILLIS = 50L;
+
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(3, OPEN_MILLIS, Logger.getLogger("CircuitBreakerTest"));
+
+    @Test
+    void opensAfterTheFailureThreshold() {
+        this.circuitBreaker.recordFailure();
+        this.circuitBreaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, this.circuitBreaker.getState());
+
+        this.circuitBreaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, this.circuitBreaker.getState());
+        assertEquals(1L, this.circuitBreaker.getTimesOpened());
+        assertFalse(this.circuitBreaker.isCallPermitted());
+        assertThrows(CircuitOpenException.class, this.circuitBreaker::acquirePermission);
+        assertEquals(1L, this.circuitBreaker.getRejectedCalls());
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        this.circuitBreaker.recordFailure();
+        this.circuitBreaker.recordFailure();
+        this.circuitBreaker.recordSuccess();
+        this.circuitBreaker.recordFailure();
+        this.circuitBreaker.recordFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, this.circuitBreaker.getState());
+        assertEquals(2, this.circuitBreaker.getConsecutiveFailures());
+    }
+
+    @Test
+    void letsOneProbeThroughAfterTheOpenPeriod() throws InterruptedException {
+        this.open();
+        Thread.sleep(OPEN_MILLIS + 20L);
+
+        assertTrue(this.circuitBreaker.isCallPermitted());
+        assertDoesNotThrow(this.circuitBreaker::acquirePermission);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, this.circuitBreaker.getState());
+
+        // the probe is in flight, every other call is rejected
+        assertFalse(this.circuitBreaker.isCallPermitted());
+        assertThrows(CircuitOpenException.class, this.circuitBreaker::acquirePermission);
+    }
+
+    @Test
+    void closesWhenTheProbeSucceeds() throws Exception {
+        this.open();
+        Thread.sleep(OPEN_MILLIS + 20L);
+        this.circuitBreaker.acquirePermission();
+
+        this.circuitBreaker.recordSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, this.circuitBreaker.getState());
+        assertEquals(0, this.circuitBreaker.getConsecutiveFailures());
+        assertDoesNotThrow(this.circuitBreaker::acquirePermission);
+    }
+
+    @Test
+    void reopensWhenTheProbeFails() throws Exception {
+        this.open();
+        Thread.sleep(OPEN_MILLIS + 20L);
+        this.circuitBreaker.acquirePermission();
+
+        this.circuitBreaker.recordFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, this.circuitBreaker.getState());
+        assertEquals(2L, this.circuitBreaker.getTimesOpened());
+        assertThrows(CircuitOpenException.class, this.circuitBreaker::acquirePermission);
+    }
+
+    private void open() {
+        for (int failure = 0; failure < this.circuitBreaker.getFailureThreshold(); failure++) {
+            this.circuitBreaker.recordFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, this.circuitBreaker.getState());
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+package de.t0bx.basecore.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryPolicyTest {
+
+    @Test
+    void clampsInvalidSettings() {
+        RetryPolicy retryPolicy = new RetryPolicy(0, 0L, -5L);
+
+        assertEquals(1, retryPolicy.getMaxAttempts());
+        assertEquals(1L, retryPolicy.getBaseDelayMillis());
+        assertEquals(1L, retryPolicy.getMaxDelayMillis());
+        assertFalse(retryPolicy.canRetry(1));
+    }
+
+    @Test
+    void allowsRetriesUntilTheLastAttempt() {
+        RetryPolicy retryPolicy = new RetryPolicy(3, 10L, 100L);
+
+        assertTrue(retryPolicy.canRetry(1));
+        assertTrue(retryPolicy.canRetry(2));
+        assertFalse(retryPolicy.canRetry(3));
+    }
+
+    @Test
+    void backoffStaysBelowTheMaximumDelay() throws SQLException {
+        RetryPolicy retryPolicy = new RetryPolicy(64, 1L, 5L);
+
+        long startedAt = System.nanoTime();
+        for (int attempt = 1; attempt <= 20; attempt++) {
+            retryPolicy.backoff(attempt);
+        }
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000L;
+
+        // 20 sleeps of at most 5ms each, with generous room for scheduler jitter
+        assertTrue(elapsedMillis < 20 * 5 + 500, "backoff took " + elapsedMillis + "ms");
+        assertEquals(20L, retryPolicy.getRetries());
+    }
+
+    @Test
+    void backoffFailsWhenInterrupted() {
+        RetryPolicy retryPolicy = new RetryPolicy(3, 10_000L, 10_000L);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(SQLException.class, () -> retryPolicy.backoff(1));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void countsOutcomes() {
+        RetryPolicy retryPolicy = new RetryPolicy(3, 1L, 1L);
+
+        retryPolicy.recordRetriedSuccess();
+        retryPolicy.recordExhausted();
+        retryPolicy.recordExhausted();
+
+        assertEquals(0L, retryPolicy.getRetries());
+        assertEquals(1L, retryPolicy.getRetriedSuccesses());
+        assertEquals(2L, retryPolicy.getExhausted());
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+package de.t0bx.basecore.database;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransactionRollbackException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SQLErrorClassifierTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"08000", "08001", "08003", "08S01"})
+    void connectionStatesAreConnectionErrors(String sqlState) {
+        assertEquals(SQLErrorClassifier.Category.CONNECTION, SQLErrorClassifier.classify(new SQLException("failed", sqlState)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1040, 1053, 1290, 1836, 1927, 2002, 2003, 2006, 2013})
+    void connectionErrorCodesAreConnectionErrors(int errorCode) {
+        assertEquals(SQLErrorClassifier.Category.CONNECTION, SQLErrorClassifier.classify(new SQLException("failed", "HY000", errorCode)));
+    }
+
+    @Test
+    void connectionExceptionTypesAreConnectionErrors() {
+        assertEquals(SQLErrorClassifier.Category.CONNECTION, SQLErrorClassifier.classify(new SQLRecoverableException("failed")));
+        assertEquals(SQLErrorClassifier.Category.CONNECTION, SQLErrorClassifier.classify(new SQLNonTransientConnectionException("failed")));
+    }
+
+    @Test
+    void rollbacksAreRollbackErrors() {
+        assertEquals(SQLErrorClassifier.Category.ROLLBACK, SQLErrorClassifier.classify(new SQLException("serialization failure", "40001")));
+        assertEquals(SQLErrorClassifier.Category.ROLLBACK, SQLErrorClassifier.classify(new SQLException("deadlock", "HY000", 1213)));
+        assertEquals(SQLErrorClassifier.Category.ROLLBACK, SQLErrorClassifier.classify(new SQLException("lock wait timeout", "HY000", 1205)));
+        assertEquals(SQLErrorClassifier.Category.ROLLBACK, SQLErrorClassifier.classify(new SQLTransactionRollbackException("rolled back")));
+    }
+
+    @Test
+    void otherErrorsAreNotRetried() {
+        assertEquals(SQLErrorClassifier.Category.OTHER, SQLErrorClassifier.classify(new SQLException("syntax error", "42000", 1064)));
+        assertEquals(SQLErrorClassifier.Category.OTHER, SQLErrorClassifier.classify(new SQLException("duplicate key", "23000", 1062)));
+        assertEquals(SQLErrorClassifier.Category.OTHER, SQLErrorClassifier.classify(new SQLException("no state")));
+    }
+
+    @Test
+    void openCircuitIsNotAConnectionError() {
+        assertEquals(SQLErrorClassifier.Category.OTHER, SQLErrorClassifier.classify(new CircuitOpenException("open")));
+    }
+
+    @Test
+    void causesAreClassified() {
+        SQLException wrapper = new SQLException("batch failed", "HY000");
+        wrapper.initCause(new SQLException("server gone away", "HY000", 2006));
+
+        assertEquals(SQLErrorClassifier.Category.CONNECTION, SQLErrorClassifier.classify(wrapper));
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.coins;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoinsCacheTest {
+
+    private static final int THREADS = 16;
+    private static final int CALLS_PER_THREAD = 20_000;
+    private static final int START_COINS = 1_000;
+
+    @ParameterizedTest
+    @EnumSource(CoinsCache.Storage.class)
+    void concurrentChangesToOnePlayerAreNotLost(CoinsCache.Storage storage) throws Exception {
+        CoinsCache cache = new CoinsCache(storage, 100, TimeUnit.MINUTES.toMillis(5));
+        UUID uuid = UUID.randomUUID();
+        cache.putIfAbsent(uuid, START_COINS);
+
+        this.hammer(uuid, cache, () -> {
+        });
+
+        int expectedDelta = THREADS * (CALLS_PER_THREAD / 2 * 3 - CALLS_PER_THREAD / 2);
+        assertEquals(START_COINS + expectedDelta, cache.get(uuid));
+        assertEquals(expectedDelta, cache.drain(uuid));
+        cache.completeDrain(uuid, expectedDelta, true);
+        assertEquals(0, cache.drain(uuid));
+    }
+
+    @ParameterizedTest
+    @EnumSource(CoinsCache.Storage.class)
+    void drainsRacingWithChangesPersistEveryDeltaOnce(CoinsCache.Storage storage) throws Exception {
+        CoinsCache cache = new CoinsCache(storage, 100, TimeUnit.MINUTES.toMillis(5));
+        UUID uuid = UUID.randomUUID();
+        cache.putIfAbsent(uuid, START_COINS);
+
+        // stands in for the flush: every other write fails and its delta has to come back
+        AtomicLong persisted = new AtomicLong();
+        AtomicInteger writes = new AtomicInteger();
+        this.hammer(uuid, cache, () -> {
+            int delta = cache.drain(uuid);
+            if (delta == 0) return;
+            boolean written = writes.incrementAndGet() % 2 == 0;
+            if (written) {
+                persisted.addAndGet(delta);
+            }
+            cache.completeDrain(uuid, delta, written);
+        });
+
+        int remaining = cache.drain(uuid);
+        cache.completeDrain(uuid, remaining, true);
+        persisted.addAndGet(remaining);
+
+        int expectedDelta = THREADS * (CALLS_PER_THREAD / 2 * 3 - CALLS_PER_THREAD / 2);
+        assertEquals(START_COINS + expectedDelta, cache.get(uuid));
+        assertEquals(expectedDelta, persisted.get());
+        assertEquals(0, cache.drain(uuid));
+    }
+
+    @ParameterizedTest
+    @EnumSource(CoinsCache.Storage.class)
+    void insertsBeyondTheMaximumSizeEvictCleanUnpinnedEntries(CoinsCache.Storage storage) {
+        CoinsCache cache = new CoinsCache(storage, 10, TimeUnit.MINUTES.toMillis(5));
+        UUID pinned = UUID.randomUUID();
+        cache.putIfAbsent(pinned, START_COINS);
+        cache.pin(pinned);
+        UUID dirty = UUID.randomUUID();
+        cache.putIfAbsent(dirty, START_COINS);
+        cache.computeIfPresent(dirty, false, 1);
+
+        for (int i = 0; i < 1_000; i++) {
+            UUID uuid = UUID.randomUUID();
+            cache.putIfAbsent(uuid, START_COINS);
+            assertTrue(cache.contains(uuid));
+            assertTrue(cache.size() <= 10);
+        }
+
+        assertTrue(cache.contains(pinned));
+        assertTrue(cache.contains(dirty));
+        assertEquals(992, cache.getEvictions());
+    }
+
+    @ParameterizedTest
+    @EnumSource(CoinsCache.Storage.class)
+    void overflowingChangesFailWithoutChangingTheEntry(CoinsCache.Storage storage) {
+        CoinsCache cache = new CoinsCache(storage, 100, TimeUnit.MINUTES.toMillis(5));
+        UUID uuid = UUID.randomUUID();
+        cache.putIfAbsent(uuid, Integer.MAX_VALUE - 1);
+
+        assertThrows(ArithmeticException.class, () -> cache.computeIfPresent(uuid, false, 2));
+        assertEquals(Integer.MAX_VALUE - 1, cache.get(uuid));
+        assertEquals(0, cache.drain(uuid));
+
+        // the balance fits, but the unsaved delta from -1 to MAX_VALUE does not
+        UUID other = UUID.randomUUID();
+        cache.putIfAbsent(other, -1);
+        cache.computeIfPresent(other, true, Integer.MAX_VALUE - 1);
+        assertThrows(ArithmeticException.class, () -> cache.computeIfPresent(other, false, 1));
+        assertEquals(Integer.MAX_VALUE - 1, cache.get(other));
+        assertEquals(Integer.MAX_VALUE, cache.drain(other));
+    }
+
+    /**
+     * Runs {@code THREADS} threads that alternate {@code computeIfPresent(+3)} and {@code compute(-1)} on one player
+     * while another thread runs {@code flush} in a loop.
+     */
+    private void hammer(UUID uuid, CoinsCache cache, Runnable flush) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        try {
+            Future<?> flusher = executor.submit(() -> {
+                while (running.get()) {
+                    flush.run();
+                }
+            });
+
+            List<Future<?>> workers = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int call = 0; call < CALLS_PER_THREAD; call++) {
+                        CoinsChange change = call % 2 == 0
+                                ? cache.computeIfPresent(uuid, false, 3)
+                                : cache.compute(uuid, 0, false, -1);
+                        assertNotNull(change);
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(1, TimeUnit.MINUTES);
+            }
+            running.set(false);
+            flusher.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+package de.t0bx.basecore.playerutils.coins;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoinsJournalTest {
+
+    private static final Logger LOGGER = Logger.getLogger("CoinsJournalTest");
+    private static final int RECORD_SIZE = 40;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendsSurviveAReopen() throws IOException {
+        Path path = this.directory.resolve("coins.journal");
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        CoinsJournal journal = this.open(path, 4096);
+        journal.appendMutation(first, 10L);
+        journal.appendMutation(first, -3L);
+        journal.appendMutation(second, 5L);
+        journal.close();
+
+        assertEquals(Map.of(first, 7, second, 5), this.open(path, 4096).takeBacklog());
+    }
+
+    @Test
+    void fullJournalRejectsMutationsUntilCompacted() throws IOException {
+        Path path = this.directory.resolve("coins.journal");
+        UUID uuid = UUID.randomUUID();
+        CoinsJournal journal = this.open(path, RECORD_SIZE * 4);
+
+        int accepted = 0;
+        while (true) {
+            try {
+                journal.appendMutation(uuid, 1L);
+                accepted++;
+            } catch (IllegalStateException full) {
+                break;
+            }
+            assertTrue(accepted < 1000, "journal never filled up");
+        }
+        assertThrows(IllegalStateException.class, () -> journal.appendMutation(uuid, 1L));
+
+        // the accepted mutations compact into one record
+        journal.maybeCompact();
+        journal.appendMutation(uuid, 1L);
+        journal.close();
+
+        assertEquals(Map.of(uuid, accepted + 1), this.open(path, RECORD_SIZE * 4).takeBacklog());
+    }
+
+    @Test
+    void compactionKeepsMutationsAppendedConcurrently() throws Exception {
+        Path path = this.directory.resolve("coins.journal");
+        CoinsJournal journal = this.open(path, RECORD_SIZE * 64);
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            players.add(UUID.randomUUID());
+        }
+
+        Map<UUID, AtomicLong> accepted = new ConcurrentHashMap<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(9);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            int offset = thread;
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    UUID uuid = players.get((i + offset) % players.size());
+                    try {
+                        journal.appendMutation(uuid, 1L);
+                        accepted.computeIfAbsent(uuid, key -> new AtomicLong()).incrementAndGet();
+                    } catch (IllegalStateException full) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }));
+        }
+        Future<?> compactor = executor.submit(() -> {
+            while (running.get()) {
+                journal.maybeCompact();
+            }
+        });
+
+        for (Future<?> writer : writers) {
+            writer.get(60, TimeUnit.SECONDS);
+        }
+        running.set(false);
+        compactor.get(60, TimeUnit.SECONDS);
+        executor.shutdown();
+        journal.close();
+
+        Map<UUID, Integer> expected = new HashMap<>();
+        accepted.forEach((uuid, count) -> expected.put(uuid, (int) count.get()));
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, this.open(path, RECORD_SIZE * 64).takeBacklog());
+    }
+
+    @Test
+    void preparedBatchesAreResolvedAfterACrash() throws IOException {
+        Path path = this.directory.resolve("coins.journal");
+        UUID committed = UUID.randomUUID();
+        UUID lost = UUID.randomUUID();
+
+        CoinsJournal journal = this.open(path, 4096);
+        journal.appendMutation(committed, 4L);
+        journal.appendMutation(lost, 6L);
+        journal.prepare(1L, Map.of(committed, 4));
+        journal.prepare(2L, Map.of(lost, 6));
+        journal.close();
+
+        CoinsJournal reopened = new CoinsJournal(path, 4096, LOGGER);
+        assertEquals(Set.of(1L, 2L), reopened.getUnresolvedBatches());
+        reopened.recover(Set.of(1L));
+        assertEquals(Map.of(lost, 6), reopened.takeBacklog());
+    }
+
+    @Test
+    void sealedCompactionReplacesTheJournalOnStart() throws IOException {
+        Path path = this.directory.resolve("coins.journal");
+        Path temporary = this.directory.resolve("coins.journal.tmp");
+        UUID uuid = UUID.randomUUID();
+
+        CoinsJournal journal = this.open(path, 4096);
+        journal.appendMutation(uuid, 9L);
+        journal.close();
+
+        // a crash after the swap: the sealed new file exists, the old one is stale
+        Files.copy(path, temporary, StandardCopyOption.REPLACE_EXISTING);
+        Files.write(path, new byte[4096]);
+
+        assertEquals(Map.of(uuid, 9), this.open(path, 4096).takeBacklog());
+        assertFalse(Files.exists(temporary));
+    }
+
+    @Test
+    void unsealedCompactionIsDiscardedOnStart() throws IOException {
+        Path path = this.directory.resolve("coins.journal");
+        Path temporary = this.directory.resolve("coins.journal.tmp");
+        UUID uuid = UUID.randomUUID();
+
+        CoinsJournal journal = this.open(path, 4096);
+        journal.appendMutation(uuid, 9L);
+        journal.close();
+
+        // a crash while the new file was being written
+        Files.write(temporary, new byte[RECORD_SIZE * 3]);
+
+        assertEquals(Map.of(uuid, 9), this.open(path, 4096).takeBacklog());
+        assertFalse(Files.exists(temporary));
+        assertTrue(Files.exists(path));
+    }
+
+    private CoinsJournal open(Path path, int capacity) throws IOException {
+        CoinsJournal journal = new CoinsJournal(path, capacity, LOGGER);
+        journal.recover(Set.of());
+        return journal;
+    }
+}
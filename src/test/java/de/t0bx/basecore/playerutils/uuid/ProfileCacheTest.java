@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+
+package de.t0bx.basecore.playerutils.uuid;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ProfileCacheTest {
+
+    @Test
+    void warmUpLoadsOnlyAfterThePruneFinished() throws Exception {
+        CompletableFuture<Void> prune = new CompletableFuture<>();
+        AtomicInteger loads = new AtomicInteger();
+        long expiresAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+        UUID uuid = UUID.randomUUID();
+
+        ProfileCache cache = new ProfileCache(100, TimeUnit.HOURS.toMillis(1), TimeUnit.MINUTES.toMillis(5), TimeUnit.HOURS.toMillis(1));
+        cache.setStore(new IProfileStore() {
+            @Override
+            public CompletableFuture<CacheEntry<UUID>> loadUUID(String nameKey) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public CompletableFuture<CacheEntry<String>> loadName(UUID uuid) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public CompletableFuture<CacheEntry<SkinFetcher.SkinData>> loadTextures(UUID uuid) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public void saveUUID(String nameKey, CacheEntry<UUID> entry) {
+            }
+
+            @Override
+            public void saveName(UUID uuid, CacheEntry<String> entry) {
+            }
+
+            @Override
+            public void saveTextures(UUID uuid, CacheEntry<SkinFetcher.SkinData> entry) {
+            }
+
+            @Override
+            public CompletableFuture<Map<String, CacheEntry<UUID>>> loadRecentUUIDs(int limit) {
+                loads.incrementAndGet();
+                return CompletableFuture.completedFuture(Map.of("notch", new CacheEntry<>(uuid, expiresAt)));
+            }
+
+            @Override
+            public CompletableFuture<Map<UUID, CacheEntry<String>>> loadRecentNames(int limit) {
+                loads.incrementAndGet();
+                return CompletableFuture.completedFuture(Map.of(uuid, new CacheEntry<>("Notch", expiresAt)));
+            }
+
+            @Override
+            public CompletableFuture<Void> prune() {
+                return prune;
+            }
+        });
+
+        CompletableFuture<Integer> warmUp = cache.warmUp(10);
+        assertEquals(0, loads.get());
+        assertFalse(warmUp.isDone());
+
+        prune.complete(null);
+        assertEquals(2, warmUp.get(5, TimeUnit.SECONDS));
+        assertEquals(2, loads.get());
+        assertEquals("Notch", cache.getNameIfPresent(uuid).getValue());
+    }
+}
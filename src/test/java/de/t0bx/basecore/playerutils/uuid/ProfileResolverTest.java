@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2025.  Tobias Schuster
+ *
+ *  Licensed under the Creative Commons Attribution-NonCommercial-NoDerivatives 4.0 International License.
+ *  You may download and share this code with attribution, but you may not modify it or use it for commercial purposes.
+ *
+ *  To view a copy of this license, visit:
+ * https://creativecommons.org/licenses/by-nc-nd/4.0/
+ */
+
+package de.t0bx.basecore.playerutils.uuid;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProfileResolverTest {
+
+    private static final String BULK_PATH = "/profiles/minecraft";
+    private static final String SESSION_PATH = "/session/minecraft/profile/";
+    private static final String BEDROCK_NAME_PATH = "/api/v1/bedrock/fuid/";
+
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private final AtomicInteger throttledResponses = new AtomicInteger();
+
+    private ExecutorService serverExecutor;
+    private HttpServer server;
+    private ProfileResolver resolver;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.serverExecutor = Executors.newFixedThreadPool(8);
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.setExecutor(this.serverExecutor);
+        this.server.createContext("/", this::handle);
+        this.server.start();
+
+        String baseUrl = "http://127.0.0.1:" + this.server.getAddress().getPort();
+        this.resolver = new ProfileResolver(baseUrl, baseUrl, baseUrl, 4);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        this.resolver.shutdown();
+        this.server.stop(0);
+        this.serverExecutor.shutdownNow();
+        this.serverExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void concurrentLookupsOfOneNameShareOneRequest() {
+        List<CompletableFuture<UUID>> lookups = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            lookups.add(this.resolver.resolveUUID("Steve"));
+        }
+        CompletableFuture.allOf(lookups.toArray(new CompletableFuture[0])).join();
+
+        UUID expected = uuidOf("Steve");
+        for (CompletableFuture<UUID> lookup : lookups) {
+            assertEquals(expected, lookup.join());
+        }
+        assertEquals(1, this.hits(BULK_PATH));
+
+        // answered from the cache, whatever the case of the name
+        assertEquals(expected, this.resolver.resolveUUID("STEVE").join());
+        assertEquals(1, this.hits(BULK_PATH));
+    }
+
+    @Test
+    void unknownPlayerIsCachedNegatively() {
+        UUID unknown = new UUID(1L, 0x404L);
+
+        CompletionException first = assertThrows(CompletionException.class, () -> this.resolver.resolveName(unknown).join());
+        assertEquals(404, assertInstanceOf(ProfileLookupException.class, first.getCause()).getStatusCode());
+        // the session server answered 204, so the Bedrock API was asked as well
+        assertEquals(1, this.hits(SESSION_PATH));
+        assertEquals(1, this.hits(BEDROCK_NAME_PATH));
+
+        CompletionException second = assertThrows(CompletionException.class, () -> this.resolver.resolveName(unknown).join());
+        assertEquals(404, assertInstanceOf(ProfileLookupException.class, second.getCause()).getStatusCode());
+        assertEquals(1, this.hits(SESSION_PATH));
+        assertEquals(1, this.hits(BEDROCK_NAME_PATH));
+    }
+
+    @Test
+    void throttledRequestIsRetriedAfterRetryAfter() {
+        this.throttledResponses.set(1);
+        UUID uuid = new UUID(2L, 0x429L);
+
+        long startedAt = System.nanoTime();
+        assertEquals("Alex", this.resolver.resolveName(uuid).join());
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        assertEquals(2, this.hits(SESSION_PATH));
+        assertEquals(0, this.hits(BEDROCK_NAME_PATH));
+        assertTrue(elapsedMillis >= 900L, "retried after " + elapsedMillis + "ms instead of waiting for Retry-After");
+
+        RequestSchedulerSnapshot.EndpointStats stats = this.resolver.getScheduler().snapshot().getEndpoints().stream()
+                .filter(endpoint -> endpoint.getEndpoint() == ProfileEndpoint.SESSION_SERVER)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1L, stats.getThrottled());
+        assertEquals(1L, stats.getRetried());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+
+        if (path.equals(BULK_PATH)) {
+            this.hit(BULK_PATH);
+            JsonArray profiles = new JsonArray();
+            String names = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            for (JsonElement element : JsonParser.parseString(names).getAsJsonArray()) {
+                JsonObject profile = new JsonObject();
+                profile.addProperty("id", undashed(uuidOf(element.getAsString())));
+                profile.addProperty("name", element.getAsString());
+                profiles.add(profile);
+            }
+            respond(exchange, 200, profiles.toString());
+        } else if (path.startsWith(SESSION_PATH)) {
+            this.hit(SESSION_PATH);
+            if (this.throttledResponses.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                respond(exchange, 429, "");
+            } else if (path.endsWith("429")) {
+                respond(exchange, 200, "{\"id\":\"" + path.substring(SESSION_PATH.length()) + "\",\"name\":\"Alex\"}");
+            } else {
+                respond(exchange, 204, "");
+            }
+        } else if (path.startsWith(BEDROCK_NAME_PATH)) {
+            this.hit(BEDROCK_NAME_PATH);
+            respond(exchange, 404, "");
+        } else {
+            respond(exchange, 404, "");
+        }
+    }
+
+    private void hit(String path) {
+        this.hits.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private int hits(String path) {
+        AtomicInteger count = this.hits.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    private static void respond(HttpExchange exchange, int statusCode, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(statusCode, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+
+    private static UUID uuidOf(String name) {
+        return UUID.nameUUIDFromBytes(name.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String undashed(UUID uuid) {
+        return uuid.toString().replace("-", "");
+    }
+}